@@ -0,0 +1,103 @@
+package com.inventory.benchmark;
+
+import com.inventory.model.Item;
+import com.inventory.model.Timestamps;
+import com.inventory.utils.JsonHandler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * 產生效能測試用的物品資料
+ * 品名混合中文詞彙、英文型號與數字，價格與加入時間隨機分布；
+ * 同樣的 seed 一定產生同樣的資料，不同次的測試結果可以互相比較。
+ */
+public final class InventoryGenerator {
+    public static final String CODE_PREFIX = "ITEM";
+    public static final int CODE_WIDTH = 4;
+
+    private static final String[] ADJECTIVES = {
+        "紅色", "藍色", "黑色", "白色", "大型", "小型", "不鏽鋼", "木製", "塑膠", "無線", "攜帶型", "復古"
+    };
+    private static final String[] NOUNS = {
+        "滑鼠", "鍵盤", "螢幕", "椅子", "桌子", "茶杯", "筆記本", "耳機", "充電器", "背包",
+        "雨傘", "檯燈", "水壺", "剪刀", "延長線", "收納盒"
+    };
+    private static final String[] BRANDS = {
+        "Acme", "Nova", "Orion", "Zen", "Pixel", "Atlas"
+    };
+    private static final long TIME_SPAN_SECONDS = 3L * 365 * 24 * 3600; // 加入時間分布在最近三年
+
+    private InventoryGenerator() {
+    }
+
+    public static List<Item> generate(int count, long seed) {
+        Random random = new Random(seed);
+        long end = Timestamps.now();
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            long addedTime = end - (long) (random.nextDouble() * TIME_SPAN_SECONDS);
+            double price = Math.round(random.nextDouble() * 1_000_000) / 100.0;
+            items.add(new Item(name(random), code(i), addedTime, price, ""));
+        }
+        return items;
+    }
+
+    // 與 CodeAllocator 相同的編號格式
+    public static String code(long number) {
+        return CODE_PREFIX + String.format("%0" + CODE_WIDTH + "d", number);
+    }
+
+    // 依 generate 的方式產生資料並寫成 JSON 檔
+    public static void writeJson(List<Item> items, Path file) throws IOException {
+        if (!new JsonHandler(true).saveItems(items, file.toString())) {
+            throw new IOException("無法寫入測試資料: " + file);
+        }
+    }
+
+    // 刪除測試用的暫存目錄
+    public static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        switch (random.nextInt(4)) {
+            case 0:
+                // 純中文，例如「藍色滑鼠」
+                name.append(pick(random, ADJECTIVES)).append(pick(random, NOUNS));
+                break;
+            case 1:
+                // 品牌加中文，例如「Nova 無線耳機」
+                name.append(pick(random, BRANDS)).append(' ')
+                        .append(pick(random, ADJECTIVES)).append(pick(random, NOUNS));
+                break;
+            case 2:
+                // 中文加型號，例如「檯燈 X-120」
+                name.append(pick(random, NOUNS)).append(" X-").append(random.nextInt(1000));
+                break;
+            default:
+                // 純英文，例如「Atlas 4821」
+                name.append(pick(random, BRANDS)).append(' ').append(random.nextInt(10000));
+                break;
+        }
+        return name.toString();
+    }
+
+    private static String pick(Random random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+}
@@ -0,0 +1,122 @@
+package com.inventory.benchmark;
+
+import com.inventory.controller.ItemManager;
+import com.inventory.controller.StorageOptions;
+import com.inventory.model.Item;
+import com.inventory.utils.CodeAllocator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查詢與編號配發的效能
+ * 每種資料量只在 Setup 建立一次 ItemManager，量測的只有查詢本身。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LookupBenchmark {
+    private static final int CODE_SAMPLES = 4096; // 必須是 2 的次方
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private Path directory;
+    private ItemManager manager;
+    private CodeAllocator allocator;
+    private String[] codes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("inventory-bench");
+        Path dataFile = directory.resolve("data.json");
+        InventoryGenerator.writeJson(InventoryGenerator.generate(size, 42), dataFile);
+        manager = new ItemManager(dataFile.toString(), new StorageOptions()
+                .journaled(false)
+                .codeFormat(InventoryGenerator.CODE_PREFIX, InventoryGenerator.CODE_WIDTH));
+        allocator = new CodeAllocator(directory.resolve("bench.seq").toString(),
+                InventoryGenerator.CODE_PREFIX, InventoryGenerator.CODE_WIDTH);
+
+        // 預先抽樣要查詢的編號，避免在量測中產生字串
+        Random random = new Random(7);
+        codes = new String[CODE_SAMPLES];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = InventoryGenerator.code(1 + random.nextInt(size));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        manager.close();
+        allocator.close();
+        InventoryGenerator.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Optional<Item> getItemByCode() {
+        return manager.getItemByCode(codes[cursor++ & (CODE_SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public Optional<Item> getItemByCodeMissing() {
+        return manager.getItemByCode("NOPE0001");
+    }
+
+    // 中文關鍵字，約有 1/16 的物品符合
+    @Benchmark
+    public List<Item> searchItemsCjk() {
+        return manager.searchItems("滑鼠");
+    }
+
+    // 較長的中文關鍵字，符合的物品較少
+    @Benchmark
+    public List<Item> searchItemsCjkPhrase() {
+        return manager.searchItems("無線耳機");
+    }
+
+    // 英文關鍵字，大小寫不同
+    @Benchmark
+    public List<Item> searchItemsAscii() {
+        return manager.searchItems("nova");
+    }
+
+    // 編號的一段：每個 bigram 都很常見，trigram 的 posting list 求交集後只剩少數候選
+    @Benchmark
+    public List<Item> searchItemsCode() {
+        return manager.searchItems("item0123");
+    }
+
+    @Benchmark
+    public List<Item> searchItemsNoMatch() {
+        return manager.searchItems("不存在的物品");
+    }
+
+    // 自動產生編號 (新增物品時使用的配發器)
+    @Benchmark
+    public String generateAutoCode() {
+        return allocator.next();
+    }
+}
@@ -0,0 +1,86 @@
+package com.inventory.benchmark;
+
+import com.inventory.controller.ItemManager;
+import com.inventory.controller.StorageOptions;
+import com.inventory.model.Item;
+import com.inventory.utils.JsonHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 讀寫資料檔與匯出 Excel 的效能
+ * 這些操作每次都處理全部物品，以毫秒為單位並減少反覆次數。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersistenceBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private Path directory;
+    private Path dataFile;
+    private Path outputFile;
+    private Path exportFile;
+    private List<Item> items;
+    private JsonHandler jsonHandler;
+    private ItemManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("inventory-bench");
+        dataFile = directory.resolve("data.json");
+        outputFile = directory.resolve("saved.json");
+        exportFile = directory.resolve("export.xlsx");
+        items = InventoryGenerator.generate(size, 42);
+        InventoryGenerator.writeJson(items, dataFile);
+        jsonHandler = new JsonHandler(true);
+        manager = new ItemManager(dataFile.toString(), new StorageOptions()
+                .journaled(false)
+                .codeFormat(InventoryGenerator.CODE_PREFIX, InventoryGenerator.CODE_WIDTH));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        manager.close();
+        InventoryGenerator.deleteRecursively(directory);
+    }
+
+    // 串流解析，物品直接交給 Blackhole，不計入建立清單的成本
+    @Benchmark
+    public int loadItems(Blackhole blackhole) throws IOException {
+        return jsonHandler.loadItems(dataFile.toString(), blackhole::consume);
+    }
+
+    @Benchmark
+    public boolean saveItems() {
+        return jsonHandler.saveItems(items, outputFile.toString());
+    }
+
+    @Benchmark
+    public boolean exportToExcel() {
+        return manager.exportToExcel(exportFile.toString());
+    }
+}
@@ -1,13 +1,29 @@
 package com.inventory;
 
+import com.inventory.controller.ItemManager;
+import com.inventory.metrics.MetricsReporter;
+import com.inventory.server.InventoryServer;
 import com.inventory.ui.ItemManagementUI;
 import java.awt.Color;
 import java.awt.Font;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 public class Main {
+    private static final String SERVER_OPTION = "--server";
+    private static final int DEFAULT_PORT = 8080;
+    private static final int SHUTDOWN_DELAY_SECONDS = 2; // 關閉伺服器時等待進行中請求的秒數
+
     public static void main(String[] args) {
+        if (args.length > 0 && SERVER_OPTION.equals(args[0])) {
+            runServer(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT, args.length > 2 ? args[2] : null);
+            return;
+        }
+
         try {
             // 設置系統外觀
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -25,11 +41,61 @@ public class Main {
         }
         
         SwingUtilities.invokeLater(() -> {
-            ItemManagementUI app = new ItemManagementUI();
+            ItemManagementUI app;
+            try {
+                app = new ItemManagementUI();
+            } catch (UncheckedIOException e) {
+                // 資料檔損毀時不啟動，避免之後的寫入以部分資料覆寫原檔
+                JOptionPane.showMessageDialog(null, e.getMessage() + "\n請修復或還原資料檔後再啟動。",
+                    "無法讀取資料", JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+                return;
+            }
             app.setVisible(true);
         });
     }
     
+    /**
+     * 不開啟視窗，只啟動 HTTP API (java -jar ... --server [port] [address])
+     * 沒有指定 address 時只接受本機連線
+     */
+    private static void runServer(int port, String address) {
+        System.setProperty("java.awt.headless", "true");
+        ItemManager itemManager;
+        try {
+            itemManager = new ItemManager();
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+        MetricsReporter reporter = itemManager.getMetrics().registerDefault();
+
+        InventoryServer server;
+        try {
+            server = address != null
+                    ? new InventoryServer(itemManager, InetAddress.getByName(address), port)
+                    : new InventoryServer(itemManager, port);
+        } catch (IOException e) {
+            System.err.println("啟動伺服器時發生錯誤: " + e.getMessage());
+            itemManager.close();
+            return;
+        }
+
+        // 收到結束訊號 (例如 Ctrl+C) 時停止接受請求，並寫出尚未寫入的資料
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(SHUTDOWN_DELAY_SECONDS);
+            itemManager.close();
+            if (reporter != null) {
+                reporter.close();
+            }
+        }, "server-shutdown"));
+
+        server.start();
+        System.out.println("物品管理系統 API 已啟動: http://" + server.getAddress() + "/items"
+                + (server.isVirtualThreads() ? " (virtual threads)" : ""));
+    }
+
     /**
      * 設置全局黑暗主題
      */
@@ -0,0 +1,69 @@
+package com.inventory.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批次操作的結果，記錄成功套用的筆數與被拒絕的項目
+ */
+public class BatchResult {
+    private int appliedCount;
+    private final List<Rejection> rejections = new ArrayList<>();
+
+    // 被拒絕的單筆項目及原因
+    public static class Rejection {
+        private final String code;
+        private final String reason;
+
+        public Rejection(String code, String reason) {
+            this.code = code;
+            this.reason = reason;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return code + ": " + reason;
+        }
+    }
+
+    void reject(String code, String reason) {
+        rejections.add(new Rejection(code, reason));
+    }
+
+    void setAppliedCount(int appliedCount) {
+        this.appliedCount = appliedCount;
+    }
+
+    public int getAppliedCount() {
+        return appliedCount;
+    }
+
+    public int getRejectedCount() {
+        return rejections.size();
+    }
+
+    public List<Rejection> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+
+    public boolean hasRejections() {
+        return !rejections.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "applied=" + appliedCount +
+                ", rejected=" + rejections.size() +
+                '}';
+    }
+}
@@ -0,0 +1,682 @@
+package com.inventory.controller;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.inventory.model.Item;
+import com.inventory.model.Timestamps;
+import com.inventory.utils.CodeAllocator;
+
+/**
+ * 以欄為單位儲存物品的儲存區，供數百萬筆以上的庫存使用
+ * 每個欄位存成一個基本型別陣列：價格為 double[]，加入時間為 epoch 秒的 long[]，
+ * 品名、編號與圖片路徑則以字串字典編碼成 int[]，重複的品名與圖片只存一份。
+ * 儲存區不保留任何 Item 物件；搜尋、排序、區間查詢與統計都直接掃描陣列，
+ * 只有回傳的物品才從欄位取值建立 Item (用完即丟，不會被之後的寫入改變)。
+ * 沒有 n-gram 與排序索引，搜尋要比對字典中的每個字串，排序結果在資料異動後第一次排序時重建。
+ *
+ * 刪除的列先標記為已刪除，掃描時略過；已刪除的列或字典中不再使用的字串過多時重整陣列與字典。
+ *
+ * 同一時間只允許一個寫入者 (由 ItemManager 負責序列化)；讀取者以讀取鎖與寫入者互斥，
+ * 因此每筆取出的物品內容都是一致的。
+ */
+public class ColumnarItemStore implements InventoryStore {
+    private static final int NO_STRING = -1; // 字串為 null
+    private static final int NO_ROW = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private StringPool names = new StringPool();
+    private StringPool codes = new StringPool();
+    private StringPool imagePaths = new StringPool();
+
+    private int[] nameIds = new int[INITIAL_CAPACITY];
+    private int[] codeIds = new int[INITIAL_CAPACITY];
+    private int[] imageIds = new int[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private long[] addedTimes = new long[INITIAL_CAPACITY];
+    private int[] rowOfCode = new int[INITIAL_CAPACITY]; // 編號的字典 id -> 列號，已刪除為 NO_ROW
+    private final BitSet deleted = new BitSet();
+    private int rowCount; // 包含已刪除的列
+    private int liveCount;
+    private final AtomicReferenceArray<SortOrder> sortOrders = new AtomicReferenceArray<>(SortField.values().length);
+    private volatile List<Item> snapshot = Collections.emptyList(); // 寫入後設為 null，待下次重建
+    private volatile long version; // 每次寫入加一，只有寫入者會修改
+
+    // 比較兩個列號
+    @FunctionalInterface
+    private interface RowComparator {
+        int compare(int rowA, int rowB);
+    }
+
+    // 某個版本依欄位遞增排序的列號
+    private static final class SortOrder {
+        final long version;
+        final int[] rows;
+
+        SortOrder(long version, int[] rows) {
+            this.version = version;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * 字串字典：相同的字串只存一份，以 int id 表示
+     */
+    private static final class StringPool {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int intern(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        int find(String value) {
+            Integer id = value != null ? ids.get(value) : null;
+            return id != null ? id : NO_STRING;
+        }
+
+        String get(int id) {
+            return id != NO_STRING ? values.get(id) : null;
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        String[] toArray() {
+            return values.toArray(new String[0]);
+        }
+
+        // 包含 query (不分大小寫) 的字串 id；每個不同的字串只比對一次
+        BitSet matching(String query) {
+            BitSet matches = new BitSet(values.size());
+            for (int id = 0; id < values.size(); id++) {
+                if (containsIgnoreCase(values.get(id), query)) {
+                    matches.set(id);
+                }
+            }
+            return matches;
+        }
+
+        // 每個 id 依 order 排序後的名次，排序時只需比較 int
+        int[] ranks(Comparator<String> order) {
+            Integer[] sorted = new Integer[values.size()];
+            for (int id = 0; id < sorted.length; id++) {
+                sorted[id] = id;
+            }
+            Arrays.sort(sorted, (a, b) -> order.compare(values.get(a), values.get(b)));
+            int[] ranks = new int[sorted.length];
+            for (int rank = 0; rank < sorted.length; rank++) {
+                ranks[sorted[rank]] = rank;
+            }
+            return ranks;
+        }
+    }
+
+    /**
+     * 依加入順序的快照：建立時複製存活列的欄位與字典，之後的寫入與重整都不會影響它
+     * 取得元素時才建立 Item
+     */
+    private static final class Snapshot extends AbstractList<Item> {
+        private final String[] names;
+        private final String[] codes;
+        private final String[] imagePaths;
+        private final int[] nameIds;
+        private final int[] codeIds;
+        private final int[] imageIds;
+        private final double[] prices;
+        private final long[] addedTimes;
+
+        Snapshot(ColumnarItemStore store) {
+            int[] rows = store.liveRows();
+            names = store.names.toArray();
+            codes = store.codes.toArray();
+            imagePaths = store.imagePaths.toArray();
+            nameIds = new int[rows.length];
+            codeIds = new int[rows.length];
+            imageIds = new int[rows.length];
+            prices = new double[rows.length];
+            addedTimes = new long[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                int row = rows[i];
+                nameIds[i] = store.nameIds[row];
+                codeIds[i] = store.codeIds[row];
+                imageIds[i] = store.imageIds[row];
+                prices[i] = store.prices[row];
+                addedTimes[i] = store.addedTimes[row];
+            }
+        }
+
+        @Override
+        public Item get(int index) {
+            return new Item(lookup(names, nameIds[index]), lookup(codes, codeIds[index]), addedTimes[index],
+                    prices[index], lookup(imagePaths, imageIds[index]));
+        }
+
+        @Override
+        public int size() {
+            return prices.length;
+        }
+
+        private static String lookup(String[] pool, int id) {
+            return id != NO_STRING ? pool[id] : null;
+        }
+    }
+
+    public ColumnarItemStore() {
+        Arrays.fill(rowOfCode, NO_ROW);
+    }
+
+    public static ColumnarItemStore from(Iterable<Item> items) {
+        ColumnarItemStore store = new ColumnarItemStore();
+        for (Item item : items) {
+            store.put(item);
+        }
+        return store;
+    }
+
+    @Override
+    public Item get(String code) {
+        lock.readLock().lock();
+        try {
+            int row = rowOf(code);
+            return row != NO_ROW ? itemAt(row) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(String code) {
+        lock.readLock().lock();
+        try {
+            return rowOf(code) != NO_ROW;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean add(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (rowOf(item.getCode()) != NO_ROW) {
+                return false;
+            }
+            write(item);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Item put(Item item) {
+        lock.writeLock().lock();
+        try {
+            return write(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 覆寫同編號的列或附加一列，回傳被取代的物品
+    private Item write(Item item) {
+        if (item.getCode() == null) {
+            throw new IllegalArgumentException("編號不可為空");
+        }
+        int codeId = codes.intern(item.getCode());
+        ensureCodeCapacity(codeId);
+        int row = rowOfCode[codeId];
+        Item previous = null;
+        if (row != NO_ROW) {
+            previous = itemAt(row);
+        } else {
+            ensureRowCapacity(rowCount + 1);
+            row = rowCount++;
+            liveCount++;
+            codeIds[row] = codeId;
+            rowOfCode[codeId] = row;
+        }
+        nameIds[row] = names.intern(item.getName());
+        imageIds[row] = imagePaths.intern(item.getImagePath());
+        prices[row] = item.getPrice();
+        addedTimes[row] = item.getAddedEpochSecond();
+        changed();
+        return previous;
+    }
+
+    @Override
+    public Item remove(String code) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(code);
+            if (row == NO_ROW) {
+                return null;
+            }
+            Item removed = itemAt(row);
+            deleted.set(row);
+            rowOfCode[codeIds[row]] = NO_ROW;
+            liveCount--;
+            changed();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void changed() {
+        if (needsCompaction()) {
+            compact();
+        }
+        snapshot = null;
+        version++;
+    }
+
+    @Override
+    public List<Item> search(String keyword) {
+        lock.readLock().lock();
+        try {
+            BitSet nameMatches = names.matching(keyword);
+            BitSet codeMatches = codes.matching(keyword);
+            List<Item> results = new ArrayList<>();
+            for (int row = 0; row < rowCount; row++) {
+                if (deleted.get(row)) {
+                    continue;
+                }
+                int nameId = nameIds[row];
+                if ((nameId != NO_STRING && nameMatches.get(nameId)) || codeMatches.get(codeIds[row])) {
+                    results.add(itemAt(row));
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 物品仍在儲存區中且品名或編號包含 query
+    @Override
+    public boolean matches(Item item, String query) {
+        return contains(item.getCode())
+                && (containsIgnoreCase(item.getName(), query) || containsIgnoreCase(item.getCode(), query));
+    }
+
+    @Override
+    public List<Item> sorted(SortField field, boolean ascending) {
+        return sortedPage(field, ascending, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Item> sortedPage(SortField field, boolean ascending, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] rows = sortOrder(field);
+            int from = Math.min(Math.max(offset, 0), rows.length);
+            int to = from + Math.min(Math.max(limit, 0), rows.length - from);
+            List<Item> results = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                results.add(itemAt(ascending ? rows[i] : rows[rows.length - 1 - i]));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 依欄位遞增排序的存活列號，同一版本只排序一次；必須持有讀取鎖
+    private int[] sortOrder(SortField field) {
+        SortOrder order = sortOrders.get(field.ordinal());
+        if (order == null || order.version != version) {
+            int[] rows = liveRows();
+            int[] codeRanks = codes.ranks(CodeAllocator.NATURAL_ORDER);
+            sortRows(rows, comparatorFor(field, (a, b) -> Integer.compare(codeRanks[codeIds[a]], codeRanks[codeIds[b]])));
+            order = new SortOrder(version, rows);
+            sortOrders.set(field.ordinal(), order);
+        }
+        return order.rows;
+    }
+
+    // 與 SortedIndex 相同：欄位值相同時依編號 (byCode) 排序；品名先把字典排序成名次，之後只比較 int
+    private RowComparator comparatorFor(SortField field, RowComparator byCode) {
+        RowComparator byField;
+        switch (field) {
+            case NAME: {
+                int[] ranks = names.ranks(Comparator.naturalOrder());
+                byField = (a, b) -> Integer.compare(rankOf(ranks, nameIds[a]), rankOf(ranks, nameIds[b]));
+                break;
+            }
+            case CODE:
+                return byCode;
+            case ADDED_TIME:
+                byField = (a, b) -> Long.compare(addedTimes[a], addedTimes[b]);
+                break;
+            case PRICE:
+                byField = (a, b) -> Double.compare(prices[a], prices[b]);
+                break;
+            default:
+                // 與 ItemStore 相同：遞增排序時有圖片的物品在前
+                byField = (a, b) -> Boolean.compare(hasImage(b), hasImage(a));
+                break;
+        }
+        return (a, b) -> {
+            int result = byField.compare(a, b);
+            return result != 0 ? result : byCode.compare(a, b);
+        };
+    }
+
+    // null 排在最前面
+    private static int rankOf(int[] ranks, int id) {
+        return id != NO_STRING ? ranks[id] : -1;
+    }
+
+    private boolean hasImage(int row) {
+        String imagePath = imagePaths.get(imageIds[row]);
+        return imagePath != null && !imagePath.trim().isEmpty();
+    }
+
+    @Override
+    public List<Item> priceRange(double min, double max) {
+        lock.readLock().lock();
+        try {
+            // 以 Double.compare 比較，NaN 與 -0.0 的處理與 ItemStore 的價格索引相同
+            int[] rows = new int[liveCount];
+            int count = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (!deleted.get(row) && Double.compare(prices[row], min) >= 0 && Double.compare(prices[row], max) <= 0) {
+                    rows[count++] = row;
+                }
+            }
+            return sortedItems(Arrays.copyOf(rows, count), SortField.PRICE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> addedTimeRange(LocalDateTime from, LocalDateTime to) {
+        long start = Timestamps.toEpochSecond(from);
+        long end = Timestamps.toEpochSecond(to);
+        lock.readLock().lock();
+        try {
+            int[] rows = new int[liveCount];
+            int count = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (!deleted.get(row) && addedTimes[row] >= start && addedTimes[row] <= end) {
+                    rows[count++] = row;
+                }
+            }
+            return sortedItems(Arrays.copyOf(rows, count), SortField.ADDED_TIME);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 只排序區間內的列，編號直接比較字串，不需要整個字典的名次
+    private List<Item> sortedItems(int[] rows, SortField field) {
+        sortRows(rows, comparatorFor(field,
+                (a, b) -> CodeAllocator.NATURAL_ORDER.compare(codes.get(codeIds[a]), codes.get(codeIds[b]))));
+        List<Item> results = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            results.add(itemAt(row));
+        }
+        return results;
+    }
+
+    public double totalPrice() {
+        lock.readLock().lock();
+        try {
+            double total = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (!deleted.get(row)) {
+                    total += prices[row];
+                }
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 最低價格，沒有物品時回傳 NaN
+    public double minPrice() {
+        lock.readLock().lock();
+        try {
+            double min = Double.NaN;
+            for (int row = 0; row < rowCount; row++) {
+                if (!deleted.get(row) && !(prices[row] >= min)) {
+                    min = prices[row];
+                }
+            }
+            return min;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 最高價格，沒有物品時回傳 NaN
+    public double maxPrice() {
+        lock.readLock().lock();
+        try {
+            double max = Double.NaN;
+            for (int row = 0; row < rowCount; row++) {
+                if (!deleted.get(row) && !(prices[row] <= max)) {
+                    max = prices[row];
+                }
+            }
+            return max;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countWithImage() {
+        lock.readLock().lock();
+        try {
+            // 先找出哪些圖片字串不是空的，之後只比對 id
+            BitSet nonEmpty = new BitSet(imagePaths.size());
+            for (int id = 0; id < imagePaths.size(); id++) {
+                if (!imagePaths.get(id).trim().isEmpty()) {
+                    nonEmpty.set(id);
+                }
+            }
+            int count = 0;
+            for (int row = 0; row < rowCount; row++) {
+                int imageId = imageIds[row];
+                if (!deleted.get(row) && imageId != NO_STRING && nonEmpty.get(imageId)) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public List<Item> publishedSnapshot() {
+        return snapshot;
+    }
+
+    // 快照只複製基本型別陣列與字典，不建立 Item
+    @Override
+    public List<Item> snapshot() {
+        List<Item> current = snapshot;
+        if (current == null) {
+            lock.readLock().lock();
+            try {
+                current = new Snapshot(this);
+            } finally {
+                lock.readLock().unlock();
+            }
+            snapshot = current;
+        }
+        return current;
+    }
+
+    // 已刪除的列超過存活的列，或字典中不再使用的字串超過使用中的字串時才重整
+    private boolean needsCompaction() {
+        int threshold = Math.max(INITIAL_CAPACITY, liveCount);
+        return rowCount - liveCount > threshold
+                || names.size() > liveCount + threshold
+                || codes.size() > liveCount + threshold
+                || imagePaths.size() > liveCount + threshold;
+    }
+
+    // 移除已刪除的列並重建字典；必須持有寫入鎖
+    private void compact() {
+        int[] rows = liveRows();
+        int[] oldNameIds = nameIds;
+        int[] oldCodeIds = codeIds;
+        int[] oldImageIds = imageIds;
+        double[] oldPrices = prices;
+        long[] oldAddedTimes = addedTimes;
+        StringPool oldNames = names;
+        StringPool oldCodes = codes;
+        StringPool oldImagePaths = imagePaths;
+        names = new StringPool();
+        codes = new StringPool();
+        imagePaths = new StringPool();
+
+        int capacity = Math.max(INITIAL_CAPACITY, rows.length);
+        nameIds = new int[capacity];
+        codeIds = new int[capacity];
+        imageIds = new int[capacity];
+        prices = new double[capacity];
+        addedTimes = new long[capacity];
+        rowOfCode = new int[capacity];
+        Arrays.fill(rowOfCode, NO_ROW);
+        for (int newRow = 0; newRow < rows.length; newRow++) {
+            int row = rows[newRow];
+            nameIds[newRow] = names.intern(oldNames.get(oldNameIds[row]));
+            codeIds[newRow] = codes.intern(oldCodes.get(oldCodeIds[row]));
+            imageIds[newRow] = imagePaths.intern(oldImagePaths.get(oldImageIds[row]));
+            prices[newRow] = oldPrices[row];
+            addedTimes[newRow] = oldAddedTimes[row];
+            rowOfCode[codeIds[newRow]] = newRow;
+        }
+        deleted.clear();
+        rowCount = rows.length;
+    }
+
+    private Item itemAt(int row) {
+        return new Item(names.get(nameIds[row]), codes.get(codeIds[row]), addedTimes[row], prices[row],
+                imagePaths.get(imageIds[row]));
+    }
+
+    private int rowOf(String code) {
+        int codeId = codes.find(code);
+        return codeId != NO_STRING && codeId < rowOfCode.length ? rowOfCode[codeId] : NO_ROW;
+    }
+
+    private int[] liveRows() {
+        int[] rows = new int[liveCount];
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (!deleted.get(row)) {
+                rows[count++] = row;
+            }
+        }
+        return rows;
+    }
+
+    // 穩定的合併排序，直接排序列號陣列
+    private static void sortRows(int[] rows, RowComparator comparator) {
+        int[] buffer = new int[rows.length];
+        for (int width = 1; width < rows.length; width *= 2) {
+            for (int start = 0; start < rows.length - width; start += width * 2) {
+                int middle = start + width;
+                int end = Math.min(start + width * 2, rows.length);
+                if (comparator.compare(rows[middle - 1], rows[middle]) <= 0) {
+                    continue; // 兩段已經有序
+                }
+                System.arraycopy(rows, start, buffer, start, end - start);
+                int left = start;
+                int right = middle;
+                for (int i = start; i < end; i++) {
+                    if (right >= end || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                        rows[i] = buffer[left++];
+                    } else {
+                        rows[i] = buffer[right++];
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensureRowCapacity(int capacity) {
+        if (capacity <= prices.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, prices.length + (prices.length >> 1));
+        nameIds = Arrays.copyOf(nameIds, newCapacity);
+        codeIds = Arrays.copyOf(codeIds, newCapacity);
+        imageIds = Arrays.copyOf(imageIds, newCapacity);
+        prices = Arrays.copyOf(prices, newCapacity);
+        addedTimes = Arrays.copyOf(addedTimes, newCapacity);
+    }
+
+    private void ensureCodeCapacity(int codeId) {
+        if (codeId < rowOfCode.length) {
+            return;
+        }
+        int oldLength = rowOfCode.length;
+        rowOfCode = Arrays.copyOf(rowOfCode, Math.max(codeId + 1, oldLength + (oldLength >> 1)));
+        Arrays.fill(rowOfCode, oldLength, rowOfCode.length, NO_ROW);
+    }
+
+    // 不分大小寫的 contains，不產生小寫字串
+    private static boolean containsIgnoreCase(String text, String query) {
+        if (text == null) {
+            return false;
+        }
+        int last = text.length() - query.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
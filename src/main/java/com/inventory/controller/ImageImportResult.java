@@ -0,0 +1,122 @@
+package com.inventory.controller;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批次匯入圖片的結果，記錄成功套用的筆數、找不到對應物品的檔案、
+ * 每個失敗的檔案及原因，以及處理速度
+ */
+public class ImageImportResult {
+    private int scannedCount;
+    private int appliedCount;
+    private long bytesRead;
+    private long elapsedNanos;
+    private boolean cancelled;
+    private final List<Path> unmatched = new ArrayList<>();
+    private final List<Failure> failures = new ArrayList<>();
+
+    // 匯入失敗的單一檔案及原因
+    public static class Failure {
+        private final Path file;
+        private final String reason;
+
+        public Failure(Path file, String reason) {
+            this.file = file;
+            this.reason = reason;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return file + ": " + reason;
+        }
+    }
+
+    void fail(Path file, String reason) {
+        failures.add(new Failure(file, reason));
+    }
+
+    void unmatched(Path file) {
+        unmatched.add(file);
+    }
+
+    void setScannedCount(int scannedCount) {
+        this.scannedCount = scannedCount;
+    }
+
+    void setAppliedCount(int appliedCount) {
+        this.appliedCount = appliedCount;
+    }
+
+    void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    // 目錄中找到的圖片檔數量
+    public int getScannedCount() {
+        return scannedCount;
+    }
+
+    public int getAppliedCount() {
+        return appliedCount;
+    }
+
+    public List<Path> getUnmatched() {
+        return Collections.unmodifiableList(unmatched);
+    }
+
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getFilesPerSecond() {
+        return elapsedNanos > 0 ? appliedCount * 1e9 / elapsedNanos : 0;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos > 0 ? bytesRead / (1024.0 * 1024.0) * 1e9 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ImageImportResult{" +
+                "scanned=" + scannedCount +
+                ", applied=" + appliedCount +
+                ", unmatched=" + unmatched.size() +
+                ", failed=" + failures.size() +
+                ", elapsedMillis=" + getElapsedMillis() +
+                String.format(", filesPerSecond=%.1f, mbPerSecond=%.1f", getFilesPerSecond(), getMegabytesPerSecond()) +
+                (cancelled ? ", cancelled" : "") +
+                '}';
+    }
+}
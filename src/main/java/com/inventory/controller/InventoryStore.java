@@ -0,0 +1,60 @@
+package com.inventory.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.inventory.model.Item;
+
+/**
+ * ItemManager 使用的記憶體儲存區
+ * ItemStore 以 Item 物件與索引保存，查詢最快；ColumnarItemStore 以基本型別陣列保存，記憶體用量最少。
+ * 由 StorageOptions.columnar 選擇。
+ *
+ * 同一時間只允許一個寫入者 (由 ItemManager 負責序列化)，讀取方法可由任意執行緒呼叫。
+ * 回傳的清單屬於呼叫端，之後的寫入不會改變清單的內容。
+ */
+public interface InventoryStore {
+    Item get(String code);
+
+    boolean contains(String code);
+
+    // 編號已存在時不加入並回傳 false
+    boolean add(Item item);
+
+    // 新增或取代同編號的物品 (取代時保留原本的順序)，回傳被取代的物品
+    Item put(Item item);
+
+    // 回傳被刪除的物品，不存在時回傳 null
+    Item remove(String code);
+
+    // 品名或編號包含關鍵字 (不分大小寫) 的物品，依加入順序排列
+    List<Item> search(String keyword);
+
+    // 物品的品名或編號是否包含已轉為小寫的查詢字串
+    boolean matches(Item item, String query);
+
+    // 依欄位排序的全部物品，欄位值相同時依編號排序
+    List<Item> sorted(SortField field, boolean ascending);
+
+    // 依欄位排序後從 offset 開始的 limit 筆
+    List<Item> sortedPage(SortField field, boolean ascending, int offset, int limit);
+
+    // 價格介於 min 與 max 之間 (包含兩端) 的物品，依價格排列
+    List<Item> priceRange(double min, double max);
+
+    // 加入時間介於 from 與 to 之間 (包含兩端) 的物品，依加入時間排列
+    List<Item> addedTimeRange(LocalDateTime from, LocalDateTime to);
+
+    // 資料版本，任何異動後都會改變
+    long version();
+
+    int size();
+
+    boolean isEmpty();
+
+    // 目前已發佈的快照；自上次寫入後尚未重建時回傳 null
+    List<Item> publishedSnapshot();
+
+    // 依加入順序的不可變快照，需要時重建；必須由寫入者 (持有寫入鎖) 呼叫
+    List<Item> snapshot();
+}
@@ -0,0 +1,21 @@
+package com.inventory.controller;
+
+import com.inventory.model.Item;
+
+/**
+ * 物品異動通知
+ * 在寫入的執行緒上呼叫 (持有 ItemManager 的寫入鎖)，實作應盡快返回；
+ * 需要更新 Swing 元件時請自行轉交給 EDT。
+ */
+public interface ItemChangeListener {
+
+    void itemAdded(Item item);
+
+    // updated 為取代原物品的新物品
+    void itemUpdated(Item updated);
+
+    void itemRemoved(Item item);
+
+    // 批次異動等大量變更，接收者應重新讀取全部資料
+    void itemsReloaded();
+}
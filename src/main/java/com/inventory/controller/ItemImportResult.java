@@ -0,0 +1,107 @@
+package com.inventory.controller;
+
+import java.nio.file.Path;
+
+/**
+ * 從 CSV 或 NDJSON 檔匯入物品的結果，記錄讀取與成功匯入的筆數、被拒絕的筆數及錯誤紀錄檔，
+ * 以及處理速度
+ */
+public class ItemImportResult {
+    private long rowCount;
+    private long importedCount;
+    private long rejectedCount;
+    private long bytesRead;
+    private long elapsedNanos;
+    private boolean cancelled;
+    private Path rejectFile;
+    private String error;
+
+    void addRow() {
+        rowCount++;
+    }
+
+    void addImported(int count) {
+        importedCount += count;
+    }
+
+    void addRejected() {
+        rejectedCount++;
+    }
+
+    void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    void setRejectFile(Path rejectFile) {
+        this.rejectFile = rejectFile;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    // 檔案中讀到的資料筆數 (不含標題列)
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getImportedCount() {
+        return importedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    // 被拒絕的資料及原因寫在此檔案，沒有被拒絕的資料時為 null
+    public Path getRejectFile() {
+        return rejectFile;
+    }
+
+    // 無法讀取檔案時的錯誤訊息，已匯入的批次仍會保留
+    public String getError() {
+        return error;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rowCount * 1e9 / elapsedNanos : 0;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos > 0 ? bytesRead / (1024.0 * 1024.0) * 1e9 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemImportResult{" +
+                "rows=" + rowCount +
+                ", imported=" + importedCount +
+                ", rejected=" + rejectedCount +
+                ", elapsedMillis=" + getElapsedMillis() +
+                String.format(", rowsPerSecond=%.0f, mbPerSecond=%.1f", getRowsPerSecond(), getMegabytesPerSecond()) +
+                (rejectFile != null ? ", rejectFile=" + rejectFile : "") +
+                (error != null ? ", error=" + error : "") +
+                (cancelled ? ", cancelled" : "") +
+                '}';
+    }
+}
@@ -0,0 +1,359 @@
+package com.inventory.controller;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import com.google.gson.Gson;
+import com.inventory.model.Item;
+import com.inventory.model.Timestamps;
+import com.inventory.utils.CodeAllocator;
+import com.inventory.utils.CsvReader;
+
+/**
+ * 從 CSV 或 NDJSON (每行一個 JSON 物件) 檔批次匯入物品
+ * 檔案逐筆讀取，記憶體中只保留目前這一批；每累積 BATCH_SIZE 筆就以 addItems 一次新增並只寫入一次
+ * (日誌模式下每批附加一段日誌，全部匯入後才重寫快照)。
+ * 不合格的資料 (品名空白、價格錯誤、編號重複、找不到圖片等) 不會中斷匯入，
+ * 而是連同行號與原因寫入錯誤紀錄檔，修正後可以只重新匯入這些資料。
+ *
+ * CSV 第一列若包含可辨識的欄位名稱 (name/品名、code/編號、price/價格、addedTime/加入時間、imagePath/圖片)
+ * 就視為標題列，欄位順序不拘；否則依序視為品名、編號、價格、加入時間、圖片。
+ * 編號空白時自動產生編號，加入時間空白時使用目前時間。
+ */
+class ItemImporter {
+    static final int BATCH_SIZE = 5000; // 每批新增的筆數，每批只寫入一次
+    private static final int CODE_LEASE = 256; // 每次預先取得的自動編號數量
+    private static final String REJECT_SUFFIX = ".rejected.txt";
+
+    private static final int NAME = 0;
+    private static final int CODE = 1;
+    private static final int PRICE = 2;
+    private static final int ADDED_TIME = 3;
+    private static final int IMAGE_PATH = 4;
+    private static final Map<String, Integer> HEADER_NAMES = new HashMap<>();
+
+    static {
+        HEADER_NAMES.put("name", NAME);
+        HEADER_NAMES.put("品名", NAME);
+        HEADER_NAMES.put("code", CODE);
+        HEADER_NAMES.put("編號", CODE);
+        HEADER_NAMES.put("price", PRICE);
+        HEADER_NAMES.put("價格", PRICE);
+        HEADER_NAMES.put("addedtime", ADDED_TIME);
+        HEADER_NAMES.put("加入時間", ADDED_TIME);
+        HEADER_NAMES.put("imagepath", IMAGE_PATH);
+        HEADER_NAMES.put("圖片", IMAGE_PATH);
+    }
+
+    private final ItemManager itemManager;
+    private final Gson gson;
+    private final Predicate<String> imageExists;
+
+    // 目前這一批
+    private final List<Item> batch = new ArrayList<>(BATCH_SIZE);
+    private final List<Long> batchLines = new ArrayList<>(BATCH_SIZE);
+    private final List<String> batchRaw = new ArrayList<>(BATCH_SIZE);
+    private final Map<String, Integer> batchCodes = new HashMap<>();
+    private CodeAllocator.Lease codes;
+
+    private ItemImportResult result;
+    private Path rejectFile;
+    private BufferedWriter rejectWriter; // 第一次有資料被拒絕時才建立
+
+    ItemImporter(ItemManager itemManager, Gson gson, Predicate<String> imageExists) {
+        this.itemManager = itemManager;
+        this.gson = gson;
+        this.imageExists = imageExists;
+    }
+
+    // 依副檔名判斷格式：.csv 為 CSV，其餘 (.ndjson、.jsonl) 為每行一個 JSON 物件
+    ItemImportResult importFile(Path file, ProgressListener progress) {
+        long start = System.nanoTime();
+        result = new ItemImportResult();
+        rejectFile = file.resolveSibling(file.getFileName() + REJECT_SUFFIX);
+        boolean csv = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+
+        CountingInputStream counter = null;
+        try {
+            // 移除上次匯入留下的錯誤紀錄，避免與這次的結果混淆
+            Files.deleteIfExists(rejectFile);
+            long total = Files.size(file);
+            counter = new CountingInputStream(Files.newInputStream(file));
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(counter, StandardCharsets.UTF_8))) {
+                skipByteOrderMark(reader);
+                if (csv) {
+                    readCsv(reader, counter, total, progress);
+                } else {
+                    readJsonLines(reader, counter, total, progress);
+                }
+                if (!result.isCancelled()) {
+                    flushBatch();
+                    progress.progress(total, total);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("匯入物品時發生錯誤: " + e.getMessage());
+            result.setError(e.getMessage());
+        } finally {
+            closeRejectWriter();
+            itemManager.finishImport();
+        }
+        result.setBytesRead(counter != null ? counter.count : 0);
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    private void readCsv(BufferedReader reader, CountingInputStream counter, long total, ProgressListener progress)
+            throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        int[] columns = {0, 1, 2, 3, 4};
+        boolean first = true;
+        List<String> fields;
+        while ((fields = readRecord(csv)) != null) {
+            if (first) {
+                first = false;
+                int[] header = headerColumns(fields);
+                if (header != null) {
+                    columns = header;
+                    continue;
+                }
+            }
+            if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                continue; // 空白列
+            }
+            result.addRow();
+            try {
+                add(parseCsv(fields, columns), csv.getLineNumber(), csv.getRawRecord());
+            } catch (IllegalArgumentException e) {
+                reject(csv.getLineNumber(), e.getMessage(), csv.getRawRecord());
+            }
+            if (batch.size() >= BATCH_SIZE && !flushAndReport(counter, total, progress)) {
+                return;
+            }
+        }
+    }
+
+    // 格式錯誤 (例如引號沒有結束) 時，先匯入錯誤之前已讀取的列再回報錯誤
+    private List<String> readRecord(CsvReader csv) throws IOException {
+        try {
+            return csv.readRecord();
+        } catch (IOException e) {
+            flushBatch();
+            throw e;
+        }
+    }
+
+    private void readJsonLines(BufferedReader reader, CountingInputStream counter, long total,
+            ProgressListener progress) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            result.addRow();
+            try {
+                Item item = gson.fromJson(line, Item.class);
+                if (item == null) {
+                    throw new IllegalArgumentException("不是物品資料");
+                }
+                add(item, lineNumber, line);
+            } catch (RuntimeException e) {
+                // JSON 格式錯誤、加入時間格式錯誤或驗證失敗
+                reject(lineNumber, e.getMessage(), line);
+            }
+            if (batch.size() >= BATCH_SIZE && !flushAndReport(counter, total, progress)) {
+                return;
+            }
+        }
+    }
+
+    // 第一列含有任何可辨識的欄位名稱時視為標題列，回傳各欄位所在的位置 (沒有的欄位為 -1)
+    private static int[] headerColumns(List<String> fields) {
+        int[] columns = {-1, -1, -1, -1, -1};
+        boolean found = false;
+        for (int i = 0; i < fields.size(); i++) {
+            Integer column = HEADER_NAMES.get(fields.get(i).trim().toLowerCase(Locale.ROOT));
+            if (column != null && columns[column] < 0) {
+                columns[column] = i;
+                found = true;
+            }
+        }
+        return found ? columns : null;
+    }
+
+    private static Item parseCsv(List<String> fields, int[] columns) {
+        String name = field(fields, columns[NAME]);
+        String code = field(fields, columns[CODE]);
+        String priceText = field(fields, columns[PRICE]);
+        String addedTime = field(fields, columns[ADDED_TIME]);
+        String imagePath = field(fields, columns[IMAGE_PATH]);
+
+        if (priceText.isEmpty()) {
+            throw new IllegalArgumentException("價格不可為空");
+        }
+        double price;
+        try {
+            price = Double.parseDouble(priceText);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("價格格式錯誤: " + priceText);
+        }
+        long epochSecond;
+        try {
+            epochSecond = addedTime.isEmpty() ? Timestamps.now() : Timestamps.parse(addedTime);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("加入時間格式錯誤: " + addedTime);
+        }
+        return new Item(name, code, epochSecond, price, imagePath);
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column).trim() : "";
+    }
+
+    // 驗證後加入目前這一批；編號空白時自動產生編號
+    private void add(Item item, long lineNumber, String raw) {
+        if (item.getName() == null || item.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("品名不可為空");
+        }
+        if (Double.isNaN(item.getPrice()) || Double.isInfinite(item.getPrice())) {
+            throw new IllegalArgumentException("價格格式錯誤: " + item.getPrice());
+        }
+        if (item.getPrice() < 0) {
+            throw new IllegalArgumentException("價格不可為負數");
+        }
+        String imagePath = item.getImagePath();
+        if (imagePath != null && !imagePath.isEmpty() && !imageExists.test(imagePath)) {
+            throw new IllegalArgumentException("找不到圖片: " + imagePath);
+        }
+        String code = item.getCode() != null ? item.getCode().trim() : "";
+        if (code.isEmpty()) {
+            code = nextCode();
+        }
+        if (!code.equals(item.getCode())) {
+            item = new Item(item.getName(), code, item.getAddedEpochSecond(), item.getPrice(), item.getImagePath());
+        }
+        if (batchCodes.putIfAbsent(item.getCode(), batch.size()) != null) {
+            throw new IllegalArgumentException("編號重複: " + item.getCode());
+        }
+        batch.add(item);
+        batchLines.add(lineNumber);
+        batchRaw.add(raw);
+    }
+
+    private String nextCode() {
+        if (codes == null || !codes.hasNext()) {
+            codes = itemManager.leaseCodes(CODE_LEASE);
+        }
+        return codes.next();
+    }
+
+    // 寫入目前這一批並回報進度，已取消時回傳 false
+    private boolean flushAndReport(CountingInputStream counter, long total, ProgressListener progress)
+            throws IOException {
+        if (progress.isCancelled()) {
+            result.setCancelled(true);
+            return false;
+        }
+        flushBatch();
+        progress.progress(Math.min(counter.count, total), total);
+        return true;
+    }
+
+    // 一次新增整批，與資料中既有編號重複的物品寫入錯誤紀錄
+    private void flushBatch() throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        BatchResult added = itemManager.addItems(batch, true);
+        result.addImported(added.getAppliedCount());
+        for (BatchResult.Rejection rejection : added.getRejections()) {
+            int index = batchCodes.get(rejection.getCode());
+            reject(batchLines.get(index), rejection.getReason() + ": " + rejection.getCode(), batchRaw.get(index));
+        }
+        batch.clear();
+        batchLines.clear();
+        batchRaw.clear();
+        batchCodes.clear();
+    }
+
+    // 錯誤紀錄每行為「行號<TAB>原因<TAB>原始內容」
+    private void reject(long lineNumber, String reason, String raw) throws IOException {
+        result.addRejected();
+        if (rejectWriter == null) {
+            rejectWriter = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8);
+            rejectWriter.write("行號\t原因\t內容");
+            rejectWriter.newLine();
+            result.setRejectFile(rejectFile);
+        }
+        rejectWriter.write(lineNumber + "\t" + reason + "\t" + raw);
+        rejectWriter.newLine();
+    }
+
+    private void closeRejectWriter() {
+        if (rejectWriter == null) {
+            return;
+        }
+        try {
+            rejectWriter.close();
+        } catch (IOException e) {
+            System.err.println("寫入錯誤紀錄時發生錯誤: " + e.getMessage());
+        }
+    }
+
+    // Excel 另存的 UTF-8 CSV 開頭有 BOM，不略過時第一個欄位名稱會對不上
+    private static void skipByteOrderMark(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    // 記錄已讀取的位元組數，用來回報進度
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
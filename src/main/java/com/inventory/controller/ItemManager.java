@@ -3,42 +3,218 @@ package com.inventory.controller;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
+import com.inventory.metrics.Metrics;
+import com.inventory.metrics.Operation;
 import com.inventory.model.Item;
+import com.inventory.model.Timestamps;
+import com.inventory.utils.BinaryHandler;
+import com.inventory.utils.CodeAllocator;
+import com.inventory.utils.ImageStore;
+import com.inventory.utils.JournalHandler;
 import com.inventory.utils.JsonHandler;
+import com.inventory.utils.ShardedHandler;
+import com.inventory.utils.SnapshotWriter;
+import com.inventory.utils.Thumbnails;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 public class ItemManager {
-    private List<Item> items;
+    private final InventoryStore items;
+    private final Metrics metrics = new Metrics();
     private final JsonHandler jsonHandler;
+    private final JournalHandler journal; // 未啟用日誌模式時為 null
+    private final BinaryHandler binaryHandler; // 未啟用二進位快照或使用分片時為 null
+    private final ShardedHandler shardedHandler; // 未啟用分片時仍會讀取既有的分片資料
+    private final SnapshotWriter snapshotWriter; // 未啟用背景寫入時為 null
+    private final ScheduledExecutorService deltaExecutor; // 未啟用合併寫入時為 null
+    private final long deltaDelayMillis;
+    private final Map<String, Item> dirty = new LinkedHashMap<>(); // 尚未寫出的異動，刪除的物品對應 null
+    private final Object checkpointLock = new Object(); // 依序寫出檢查點快照，不佔用寫入鎖
+    private PendingCheckpoint pendingCheckpoint; // 未啟用背景寫入時，等待釋放寫入鎖後寫出的快照
+    private boolean lastCheckpointSaved = true; // 由 checkpointLock 保護
+    private boolean deltaScheduled;
+    private final CodeAllocator codeAllocator;
+    private final Path imageDirectory;
+    private final ImageStore imageStore;
+    private final List<ItemChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final String dataFile;
+    private final String binaryFile;
     private static final String DATA_FILE = "data.json";
-    private static final String IMAGE_DIR = "data"; // 圖片儲存目錄
+    private static final String IMAGE_DIR = "data"; // 圖片儲存目錄 (與資料檔在同一個目錄下)
+    private static final Set<String> IMAGE_EXTENSIONS =
+            new HashSet<>(Arrays.asList("jpg", "jpeg", "png", "gif", "bmp")); // 與選擇圖片時允許的格式相同
+    private static final int IMPORT_QUEUE_PER_THREAD = 4; // 批次匯入時每個工作執行緒最多排隊的工作數
+    private static final String THUMBNAIL_DIR = "thumbs"; // 預覽縮圖目錄 (圖片目錄下)
+    private static final int CHECKPOINT_THRESHOLD = 1000; // 日誌累積多少筆後重寫快照
+    private static final long CHECKPOINT_BYTES = 8L * 1024 * 1024; // 日誌累積多少位元組後重寫快照
+    private static final int EXPORT_ROW_WINDOW = 100; // 匯出時記憶體中保留的列數
+    private static final int EXPORT_WIDTH_SAMPLE = 1000; // 估計欄寬時抽樣的筆數
+    private static final int SEARCH_CANCEL_STEP = 4096; // 篩選搜尋結果時每隔多少筆檢查是否取消
+    private static final int EXPORT_PROGRESS_STEP = 1000; // 每寫入多少列回報一次進度
+    private static final int NO_SEGMENT = -1; // 未啟用日誌時沒有要刪除的日誌區段
+
+    // 已擷取但尚未寫出的快照，以及寫入成功後可以刪除的日誌區段
+    private static final class PendingCheckpoint {
+        final List<Item> snapshot;
+        final int sealedSegment;
+
+        PendingCheckpoint(List<Item> snapshot, int sealedSegment) {
+            this.snapshot = snapshot;
+            this.sealedSegment = sealedSegment;
+        }
+    }
 
     public ItemManager() {
-        this.jsonHandler = new JsonHandler();
-        this.items = jsonHandler.loadItems(DATA_FILE);
-        if (this.items == null) {
-            this.items = new ArrayList<>();
+        this(DATA_FILE, StorageOptions.defaults());
+    }
+
+    public ItemManager(String dataFile, boolean journaled) {
+        this(dataFile, new StorageOptions().journaled(journaled));
+    }
+
+    // 資料檔存在但無法完整讀取時拋出 UncheckedIOException，不會以部分資料繼續執行 (之後的寫入會覆寫原檔)
+    public ItemManager(String dataFile, StorageOptions options) {
+        if (options.isDeltaWrites() && !options.isJournaled()) {
+            // 合併寫入是把異動寫成日誌區段，沒有日誌時每次異動都會重寫整個快照
+            throw new IllegalArgumentException("deltaWrites 需要同時啟用日誌 (journaled)");
+        }
+        this.items = options.isColumnar() ? new ColumnarItemStore() : new ItemStore();
+        this.dataFile = dataFile;
+        this.binaryFile = siblingFileName(dataFile, ".bin");
+        Path dataDirectory = Paths.get(dataFile).toAbsolutePath().getParent();
+        this.imageDirectory = dataDirectory.resolve(IMAGE_DIR);
+        this.imageStore = new ImageStore(imageDirectory, imageDirectory.resolve(THUMBNAIL_DIR),
+                bytes -> metrics.addBytesWritten(Operation.IMAGE_COPY, bytes));
+        this.jsonHandler = new JsonHandler(true);
+        this.binaryHandler = options.isBinarySnapshot() && options.getShards() == 0 ? new BinaryHandler() : null;
+        this.shardedHandler = new ShardedHandler(siblingFileName(dataFile, ".shards"), options.getShards(), jsonHandler);
+        long loadStart = metrics.start();
+        try {
+            loadSnapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法讀取資料檔: " + e.getMessage(), e);
         }
+
+        if (options.isJournaled()) {
+            this.journal = new JournalHandler(siblingFileName(dataFile, ".journal"), jsonHandler.getCompactGson());
+            replayJournal();
+        } else {
+            this.journal = null;
+        }
+        metrics.record(Operation.LOAD, loadStart);
+        metrics.setGauges(items::size, imageStore::imageCount);
+        this.codeAllocator = new CodeAllocator(siblingFileName(dataFile, ".seq"),
+                options.getCodePrefix(), options.getCodeWidth());
+        for (Item item : items.snapshot()) {
+            codeAllocator.observe(item.getCode());
+            imageStore.retain(item.getImagePath());
+        }
+        this.snapshotWriter = options.isAsyncWrites()
+                ? new SnapshotWriter(this::writeSnapshot, options.getWriteDelayMillis())
+                : null;
+        this.deltaDelayMillis = options.getWriteDelayMillis();
+        this.deltaExecutor = options.isDeltaWrites()
+                ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "delta-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
         // 確保圖片目錄存在
         createImageDirectory();
     }
 
+    // data.json -> data.journal / data.bin / data.seq / data.shards
+    private static String siblingFileName(String dataFile, String extension) {
+        int lastDotIndex = dataFile.lastIndexOf('.');
+        String baseName = lastDotIndex > 0 ? dataFile.substring(0, lastDotIndex) : dataFile;
+        return baseName + extension;
+    }
+
+    // 有分片資料時平行讀取分片；二進位快照不比 JSON 舊時直接映射讀取，否則解析 JSON 並重建二進位快照
+    private void loadSnapshot() throws IOException {
+        List<Item> sharded = shardedHandler.loadItems();
+        if (sharded != null) {
+            sharded.forEach(items::put);
+            if (!shardedHandler.isEnabled() && writeSnapshot(items.snapshot())) {
+                // 停用分片後改回單一的 data.json
+                shardedHandler.delete();
+            }
+            return;
+        }
+
+        if (binaryHandler != null && isBinarySnapshotCurrent()) {
+            List<Item> loaded = binaryHandler.loadItems(binaryFile);
+            if (loaded != null) {
+                loaded.forEach(items::put);
+                return;
+            }
+        }
+
+        jsonHandler.loadItems(dataFile, items::put);
+        if (binaryHandler != null && new File(dataFile).exists()) {
+            binaryHandler.saveItems(items.snapshot(), binaryFile);
+        }
+        if (shardedHandler.isEnabled() && !items.isEmpty()) {
+            // 第一次啟用分片，把既有資料寫成分片；之後不再更新 data.json
+            writeSnapshot(items.snapshot());
+        }
+    }
+
+    private boolean isBinarySnapshotCurrent() {
+        File binary = new File(binaryFile);
+        File json = new File(dataFile);
+        return binary.exists() && (!json.exists() || binary.lastModified() >= json.lastModified());
+    }
+
+    // 將上次檢查點之後的異動套用到快照上
+    private void replayJournal() {
+        journal.replay(new JournalHandler.ReplayListener() {
+            @Override
+            public void onPut(Item item) {
+                items.put(item);
+            }
+
+            @Override
+            public void onDelete(String code) {
+                items.remove(code);
+            }
+        });
+    }
+
     // 確保圖片儲存目錄存在
     private void createImageDirectory() {
-        File imageDir = new File(IMAGE_DIR);
+        File imageDir = imageDirectory.toFile();
         if (!imageDir.exists()) {
             imageDir.mkdirs();
         }
@@ -50,152 +226,838 @@ public class ItemManager {
             return "";
         }
 
-        Path sourcePath = Paths.get(sourceImagePath);
-        if (!Files.exists(sourcePath)) {
-            throw new IOException("來源圖片檔案不存在: " + sourceImagePath);
+        long start = metrics.start();
+        boolean succeeded = false;
+        try {
+            Path sourcePath = Paths.get(sourceImagePath);
+            if (!Files.exists(sourcePath)) {
+                throw new IOException("來源圖片檔案不存在: " + sourceImagePath);
+            }
+
+            // 以內容雜湊命名，相同的圖片只存一份
+            String storedName = imageStore.importFile(sourcePath);
+
+            // 匯入時就產生預覽用的縮圖，點選物品時不必再解碼原圖
+            if (!Files.exists(imageStore.thumbnailPath(storedName))) {
+                createThumbnail(storedName);
+            }
+
+            succeeded = true;
+            return storedName;
+        } finally {
+            metrics.record(Operation.IMAGE_COPY, start, succeeded);
         }
+    }
 
-        // 取得檔案副檔名
-        String fileName = sourcePath.getFileName().toString();
-        String extension = "";
-        int lastDotIndex = fileName.lastIndexOf('.');
-        if (lastDotIndex > 0) {
-            extension = fileName.substring(lastDotIndex);
+    // 取得圖片的縮圖檔，舊資料沒有縮圖時從原圖產生；沒有圖片或無法產生時回傳 null
+    public File getThumbnailFile(String imagePath) {
+        if (!ImageStore.isValidName(imagePath)) {
+            return null;
+        }
+        Path thumbnail = imageStore.thumbnailPath(imagePath);
+        if (Files.exists(thumbnail) || createThumbnail(imagePath)) {
+            return thumbnail.toFile();
         }
+        return null;
+    }
 
-        // 產生唯一檔名
-        String uniqueFileName = UUID.randomUUID().toString() + extension;
-        Path targetPath = Paths.get(IMAGE_DIR, uniqueFileName);
+    // 縮圖產生失敗不影響匯入，預覽時會再嘗試一次
+    private boolean createThumbnail(String imagePath) {
+        try {
+            return Thumbnails.create(imageStore.resolve(imagePath), imageStore.thumbnailPath(imagePath));
+        } catch (IOException e) {
+            System.err.println("產生縮圖時發生錯誤: " + e.getMessage());
+            return false;
+        }
+    }
 
-        // 複製檔案
-        Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
-        
-        return uniqueFileName;
+    // 已複製但最後沒有被物品使用的圖片 (例如複製後作業被取消)，沒有其他物品引用時刪除
+    public void discardCopiedImage(String imagePath) {
+        imageStore.discard(imagePath);
     }
 
-    // 刪除圖片檔案
-    private void deleteImageFile(String imagePath) {
-        if (imagePath != null && !imagePath.trim().isEmpty()) {
-            Path imageFile = Paths.get(IMAGE_DIR, imagePath);
+    // 從目錄批次匯入圖片，檔名 (不含副檔名) 與物品編號相同的圖片會設為該物品的圖片
+    // 目錄以 threads 個執行緒的 ForkJoin 工作平行走訪 (每個子目錄一個工作)，
+    // 複製與產生縮圖也由 threads 個工作執行緒處理，全部完成後才一次更新並寫入
+    public ImageImportResult importImages(Path directory, int threads, ProgressListener progress) {
+        long start = System.nanoTime();
+        ImageImportResult result = new ImageImportResult();
+
+        List<Path> files;
+        ForkJoinPool walkers = new ForkJoinPool(threads);
+        try {
+            files = walkers.invoke(new ImageScan(directory));
+        } catch (UncheckedIOException e) {
+            System.err.println("讀取圖片目錄時發生錯誤: " + e.getMessage());
+            result.fail(directory, e.getMessage());
+            return result;
+        } finally {
+            walkers.shutdown();
+        }
+        result.setScannedCount(files.size());
+
+        // 依檔名找出對應的物品
+        Map<String, Path> filesByCode = new LinkedHashMap<>();
+        for (Path file : files) {
+            Item item = findItemForImage(file);
+            if (item == null) {
+                result.unmatched(file);
+            } else if (filesByCode.putIfAbsent(item.getCode(), file) != null) {
+                result.fail(file, "物品 " + item.getCode() + " 有多個圖片檔");
+            }
+        }
+
+        // 工作佇列有上限，佇列滿時由送出工作的執行緒自己處理，避免一次排入上萬個工作
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * IMPORT_QUEUE_PER_THREAD), new ThreadPoolExecutor.CallerRunsPolicy());
+        AtomicLong completed = new AtomicLong();
+        AtomicLong bytesRead = new AtomicLong();
+        Map<String, Future<String>> copies = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Path> entry : filesByCode.entrySet()) {
+                Path file = entry.getValue();
+                copies.put(entry.getKey(), pool.submit(() -> {
+                    if (progress.isCancelled()) {
+                        return null;
+                    }
+                    long size = Files.size(file);
+                    String storedName = copyImageToDataDir(file.toString());
+                    bytesRead.addAndGet(size);
+                    progress.progress(completed.incrementAndGet(), filesByCode.size());
+                    return storedName;
+                }));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Map<String, String> storedNames = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<String>> entry : copies.entrySet()) {
             try {
-                Files.deleteIfExists(imageFile);
-            } catch (IOException e) {
-                System.err.println("刪除圖片檔案時發生錯誤: " + e.getMessage());
+                String storedName = entry.getValue().get();
+                if (storedName != null) {
+                    storedNames.put(entry.getKey(), storedName);
+                }
+            } catch (ExecutionException e) {
+                result.fail(filesByCode.get(entry.getKey()), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
         }
+
+        if (progress.isCancelled() || Thread.currentThread().isInterrupted()) {
+            storedNames.values().forEach(imageStore::discard);
+            result.setCancelled(true);
+        } else {
+            result.setAppliedCount(applyImportedImages(storedNames, filesByCode, result));
+        }
+        result.setBytesRead(bytesRead.get());
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
     }
 
-    // 自動產生編號
-    private String generateAutoCode() {
-        int maxNumber = 0;
-        String prefix = "ITEM";
-        
-        // 找出現有編號中的最大數字
-        for (Item item : items) {
-            String code = item.getCode();
-            if (code.startsWith(prefix)) {
-                try {
-                    String numberPart = code.substring(prefix.length());
-                    int number = Integer.parseInt(numberPart);
-                    if (number > maxNumber) {
-                        maxNumber = number;
+    // 一次套用所有匯入的圖片；匯入期間被刪除的物品不套用
+    // 在寫入鎖內套用，釋放鎖後才寫出排定的檢查點快照 (與其他公開的寫入方法相同)
+    private int applyImportedImages(Map<String, String> storedNames, Map<String, Path> filesByCode,
+            ImageImportResult result) {
+        return writeCheckpointAfter(replaceImages(storedNames, filesByCode, result));
+    }
+
+    private synchronized int replaceImages(Map<String, String> storedNames, Map<String, Path> filesByCode,
+            ImageImportResult result) {
+        Map<String, Item> updates = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : storedNames.entrySet()) {
+            Item current = items.get(entry.getKey());
+            if (current == null) {
+                imageStore.discard(entry.getValue());
+                result.fail(filesByCode.get(entry.getKey()), "物品已不存在");
+            } else {
+                updates.put(entry.getKey(), new Item(current.getName(), current.getCode(), current.getPrice(),
+                        entry.getValue()));
+            }
+        }
+        return replaceItems(updates).getAppliedCount();
+    }
+
+    // 檔名去掉副檔名後就是物品編號，找不到時再以大寫比對
+    private Item findItemForImage(Path file) {
+        String fileName = file.getFileName().toString();
+        int lastDotIndex = fileName.lastIndexOf('.');
+        String code = lastDotIndex > 0 ? fileName.substring(0, lastDotIndex) : fileName;
+        Item item = items.get(code);
+        return item != null ? item : items.get(code.toUpperCase(Locale.ROOT));
+    }
+
+    // 列出一個目錄中的圖片檔，每個子目錄另外分出一個工作；與 Files.walk 相同，不進入符號連結的目錄
+    private static final class ImageScan extends RecursiveTask<List<Path>> {
+        private final Path directory;
+
+        ImageScan(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<Path> compute() {
+            List<Path> images = new ArrayList<>();
+            List<ImageScan> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        ImageScan scan = new ImageScan(entry);
+                        scan.fork();
+                        subdirectories.add(scan);
+                    } else if (Files.isRegularFile(entry) && isImageFile(entry)) {
+                        images.add(entry);
                     }
-                } catch (NumberFormatException e) {
-                    // 忽略無法解析的編號
                 }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (ImageScan scan : subdirectories) {
+                images.addAll(scan.join());
             }
+            return images;
         }
-        
-        // 產生新編號
-        return prefix + String.format("%04d", maxNumber + 1);
     }
 
+    private static boolean isImageFile(Path file) {
+        String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        int lastDotIndex = fileName.lastIndexOf('.');
+        return lastDotIndex > 0 && IMAGE_EXTENSIONS.contains(fileName.substring(lastDotIndex + 1));
+    }
+
+    // 從 CSV 或 NDJSON 檔批次匯入物品，每 ItemImporter.BATCH_SIZE 筆一次新增並寫入；
+    // 被拒絕的資料寫入同目錄的 <檔名>.rejected.txt
+    public ItemImportResult importItems(Path file, ProgressListener progress) {
+        ItemImporter importer = new ItemImporter(this, jsonHandler.getCompactGson(),
+                imagePath -> ImageStore.isValidName(imagePath) && Files.exists(imageStore.resolve(imagePath)));
+        return importer.importFile(file, progress);
+    }
+
+    // 預先取得一段連續編號，供批次匯入使用
+    public CodeAllocator.Lease leaseCodes(int count) {
+        return codeAllocator.lease(count);
+    }
+
+    // 公開的寫入方法在寫入鎖內套用異動，釋放鎖之後才寫出過程中排定的檢查點快照 (見 scheduleCheckpoint)
+
     // 新增物品的方法，自動產生編號
     public boolean addItem(String name, double price, String imagePath) {
-        String autoCode = generateAutoCode();
+        return writeCheckpointAfter(insertItem(name, price, imagePath));
+    }
+
+    public boolean addItem(Item item) {
+        return writeCheckpointAfter(insertItem(item));
+    }
+
+    public boolean updateItem(String code, Item updatedItem) {
+        return writeCheckpointAfter(replaceItem(code, updatedItem));
+    }
+
+    // 只修改品名與價格，保留原本的圖片 (HTTP API 不接受用戶端指定的圖片路徑)
+    public boolean updateItem(String code, String name, double price) {
+        return writeCheckpointAfter(replaceItem(code, name, price));
+    }
+
+    public boolean deleteItem(String code) {
+        return writeCheckpointAfter(removeItem(code));
+    }
+
+    private synchronized boolean insertItem(String name, double price, String imagePath) {
+        long start = metrics.start();
+        if (!isValidPrice(price)) {
+            metrics.record(Operation.ADD, start, false);
+            return false;
+        }
+        String autoCode = codeAllocator.next();
         Item item = new Item(name, autoCode, price, imagePath);
-        items.add(item);
-        saveItems();
+        items.put(item);
+        imageStore.retain(item.getImagePath());
+        persistPut(item);
+        listeners.forEach(listener -> listener.itemAdded(item));
+        metrics.record(Operation.ADD, start);
         return true;
     }
 
-    public boolean addItem(Item item) {
-        // 檢查編號是否已存在
-        if (getItemByCode(item.getCode()).isPresent()) {
+    private synchronized boolean insertItem(Item item) {
+        long start = metrics.start();
+        // 檢查價格與編號是否已存在
+        if (!isValidPrice(item.getPrice()) || !items.add(item)) {
+            metrics.record(Operation.ADD, start, false);
             return false;
         }
-        items.add(item);
-        saveItems();
+        imageStore.retain(item.getImagePath());
+        codeAllocator.observe(item.getCode());
+        persistPut(item);
+        listeners.forEach(listener -> listener.itemAdded(item));
+        metrics.record(Operation.ADD, start);
         return true;
     }
 
-    public boolean updateItem(String code, Item updatedItem) {
-        Optional<Item> existingItem = getItemByCode(code);
-        if (existingItem.isPresent()) {
-            Item item = existingItem.get();
-            
-            // 如果圖片路徑有變更，需要處理舊圖片的刪除
-            String oldImagePath = item.getImagePath();
-            String newImagePath = updatedItem.getImagePath();
-            
-            item.setName(updatedItem.getName());
-            item.setPrice(updatedItem.getPrice());
-            item.setImagePath(newImagePath);
-            // 保留原始的加入時間
-            
-            // 如果有舊圖片且與新圖片不同，刪除舊圖片
-            if (oldImagePath != null && !oldImagePath.equals(newImagePath) && !oldImagePath.trim().isEmpty()) {
-                deleteImageFile(oldImagePath);
-            }
-            
-            saveItems();
+    private synchronized boolean replaceItem(String code, Item updatedItem) {
+        long start = metrics.start();
+        Item item = items.get(code);
+        if (item != null && isValidPrice(updatedItem.getPrice())) {
+            Item replacement = applyUpdate(item, updatedItem);
+            persistPut(replacement);
+            listeners.forEach(listener -> listener.itemUpdated(replacement));
+            metrics.record(Operation.UPDATE, start);
             return true;
         }
+        metrics.record(Operation.UPDATE, start, false);
         return false;
     }
 
-    public boolean deleteItem(String code) {
-        Optional<Item> item = getItemByCode(code);
-        if (item.isPresent()) {
-            // 刪除關聯的圖片檔案
-            deleteImageFile(item.get().getImagePath());
-            items.remove(item.get());
-            saveItems();
+    private synchronized boolean replaceItem(String code, String name, double price) {
+        Item item = items.get(code);
+        if (item == null) {
+            metrics.recordError(Operation.UPDATE);
+            return false;
+        }
+        return replaceItem(code, new Item(name, code, price, item.getImagePath()));
+    }
+
+    // NaN 與無限大無法寫成 JSON，放進儲存區後之後的每次寫入都會失敗，因此在套用前就拒絕
+    private static boolean isValidPrice(double price) {
+        return !Double.isNaN(price) && !Double.isInfinite(price);
+    }
+
+    // 以更新內容建立新的物品取代既有物品；已發佈的物品不會被修改，讀取端不會看到改到一半的資料
+    private Item applyUpdate(Item item, Item updatedItem) {
+        // 保留原始的加入時間
+        Item replacement = new Item(updatedItem.getName(), item.getCode(), item.getAddedEpochSecond(),
+                updatedItem.getPrice(), updatedItem.getImagePath());
+        items.put(replacement);
+        
+        // 先引用新圖片再釋放舊圖片，新舊相同時圖片不會被刪除；舊圖片沒有其他物品使用時才刪除
+        imageStore.retain(replacement.getImagePath());
+        imageStore.release(item.getImagePath());
+        return replacement;
+    }
+
+    private synchronized boolean removeItem(String code) {
+        long start = metrics.start();
+        Item item = items.remove(code);
+        if (item != null) {
+            // 釋放關聯的圖片，沒有其他物品使用時才刪除檔案
+            imageStore.release(item.getImagePath());
+            persistDelete(code);
+            listeners.forEach(listener -> listener.itemRemoved(item));
+            metrics.record(Operation.DELETE, start);
             return true;
         }
+        metrics.record(Operation.DELETE, start, false);
         return false;
     }
 
+    // 批次新增：整批先驗證，再一次套用並只寫入一次
+    public BatchResult addItems(Collection<Item> newItems) {
+        return addItems(newItems, false);
+    }
+
+    // 批次匯入時 deferCheckpoint 為 true：每批都附加到日誌，匯入結束後由 finishImport 才重寫快照
+    BatchResult addItems(Collection<Item> newItems, boolean deferCheckpoint) {
+        return writeCheckpointAfter(insertItems(newItems, deferCheckpoint));
+    }
+
+    // 批次修改：key 為要修改的物品編號
+    public BatchResult updateItems(Map<String, Item> updates) {
+        return writeCheckpointAfter(replaceItems(updates));
+    }
+
+    // 批次刪除
+    public BatchResult deleteItems(Collection<String> codes) {
+        return writeCheckpointAfter(removeItems(codes));
+    }
+
+    private synchronized BatchResult insertItems(Collection<Item> newItems, boolean deferCheckpoint) {
+        long start = metrics.start();
+        BatchResult result = new BatchResult();
+        Set<String> batchCodes = new HashSet<>();
+        List<Item> accepted = new ArrayList<>();
+
+        for (Item item : newItems) {
+            if (item == null || item.getCode() == null || item.getCode().trim().isEmpty()) {
+                result.reject(item != null ? item.getCode() : null, "編號不可為空");
+            } else if (!isValidPrice(item.getPrice())) {
+                result.reject(item.getCode(), "價格格式錯誤: " + item.getPrice());
+            } else if (items.contains(item.getCode()) || !batchCodes.add(item.getCode())) {
+                result.reject(item.getCode(), "編號已存在");
+            } else {
+                accepted.add(item);
+            }
+        }
+
+        for (Item item : accepted) {
+            items.add(item);
+            imageStore.retain(item.getImagePath());
+            codeAllocator.observe(item.getCode());
+        }
+        persistPuts(accepted, deferCheckpoint);
+        fireReloadedIfChanged(accepted.size());
+        result.setAppliedCount(accepted.size());
+        metrics.record(Operation.BATCH, start);
+        return result;
+    }
+
+    private synchronized BatchResult replaceItems(Map<String, Item> updates) {
+        long start = metrics.start();
+        BatchResult result = new BatchResult();
+        Map<Item, Item> accepted = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Item> entry : updates.entrySet()) {
+            Item existing = items.get(entry.getKey());
+            if (entry.getValue() == null) {
+                result.reject(entry.getKey(), "更新內容不可為空");
+            } else if (existing == null) {
+                result.reject(entry.getKey(), "物品不存在");
+            } else if (!isValidPrice(entry.getValue().getPrice())) {
+                result.reject(entry.getKey(), "價格格式錯誤: " + entry.getValue().getPrice());
+            } else {
+                accepted.put(existing, entry.getValue());
+            }
+        }
+
+        List<Item> replacements = new ArrayList<>(accepted.size());
+        for (Map.Entry<Item, Item> entry : accepted.entrySet()) {
+            replacements.add(applyUpdate(entry.getKey(), entry.getValue()));
+        }
+        persistPuts(replacements);
+        fireReloadedIfChanged(replacements.size());
+        result.setAppliedCount(accepted.size());
+        metrics.record(Operation.BATCH, start);
+        return result;
+    }
+
+    private synchronized BatchResult removeItems(Collection<String> codes) {
+        long start = metrics.start();
+        BatchResult result = new BatchResult();
+        List<String> accepted = new ArrayList<>();
+
+        for (String code : codes) {
+            Item existing = items.remove(code);
+            if (existing == null) {
+                result.reject(code, "物品不存在");
+            } else {
+                accepted.add(code);
+                imageStore.release(existing.getImagePath());
+            }
+        }
+
+        persistDeletes(accepted);
+        fireReloadedIfChanged(accepted.size());
+        result.setAppliedCount(accepted.size());
+        metrics.record(Operation.BATCH, start);
+        return result;
+    }
+
+    private void fireReloadedIfChanged(int changedCount) {
+        if (changedCount > 0) {
+            listeners.forEach(ItemChangeListener::itemsReloaded);
+        }
+    }
+
+    public void addChangeListener(ItemChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(ItemChangeListener listener) {
+        listeners.remove(listener);
+    }
+
     public Optional<Item> getItemByCode(String code) {
-        return items.stream()
-                .filter(item -> item.getCode().equals(code))
-                .findFirst();
+        long start = metrics.start();
+        Item item = items.get(code);
+        metrics.record(Operation.LOOKUP, start);
+        return Optional.ofNullable(item);
     }
 
     public List<Item> searchItems(String keyword) {
-        if (keyword == null || keyword.trim().isEmpty()) {
-            return new ArrayList<>(items);
+        long start = metrics.start();
+        try {
+            if (keyword == null || keyword.trim().isEmpty()) {
+                return getAllItems();
+            }
+            return items.search(keyword);
+        } finally {
+            metrics.record(Operation.SEARCH, start);
         }
-        
-        String lowerKeyword = keyword.toLowerCase();
-        return items.stream()
-                .filter(item -> 
-                    item.getName().toLowerCase().contains(lowerKeyword) || 
-                    item.getCode().toLowerCase().contains(lowerKeyword))
-                .collect(Collectors.toList());
+    }
+
+    // 搜尋並記錄結果，供下一次查詢接續使用
+    // 新的查詢字串包含上一次的查詢字串且資料沒有異動時，只篩選上一次的結果；
+    // 每檢查一段物品就確認是否已取消，取消時回傳 null
+    public SearchResult search(String keyword, SearchResult previous, ProgressListener progress) {
+        long start = metrics.start();
+        try {
+            return filter(keyword, previous, progress);
+        } finally {
+            metrics.record(Operation.SEARCH, start);
+        }
+    }
+
+    private SearchResult filter(String keyword, SearchResult previous, ProgressListener progress) {
+        String query = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        long version = items.version();
+        if (query.isEmpty()) {
+            return new SearchResult(query, version, snapshot());
+        }
+        if (previous == null || previous.getVersion() != version || previous.getQuery().isEmpty()
+                || !query.contains(previous.getQuery())) {
+            return new SearchResult(query, version, items.search(query));
+        }
+
+        List<Item> candidates = previous.getItems();
+        List<Item> matches = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (i % SEARCH_CANCEL_STEP == 0 && progress.isCancelled()) {
+                return null;
+            }
+            Item item = candidates.get(i);
+            if (items.matches(item, query)) {
+                matches.add(item);
+            }
+        }
+        return new SearchResult(query, version, matches);
+    }
+
+    // 依欄位排序的全部物品；預設的儲存區直接走訪持續維護的排序索引，不需重新排序
+    public List<Item> getSortedItems(SortField field, boolean ascending) {
+        return items.sorted(field, ascending);
+    }
+
+    // 依欄位排序後從 offset 開始的 limit 筆，只走訪到需要的位置
+    public List<Item> getSortedItems(SortField field, boolean ascending, int offset, int limit) {
+        return items.sortedPage(field, ascending, offset, limit);
+    }
+
+    // 價格介於 min 與 max 之間 (包含兩端) 的物品
+    public List<Item> getItemsByPriceRange(double min, double max) {
+        return items.priceRange(min, max);
+    }
+
+    // 加入時間介於 from 與 to 之間 (包含兩端) 的物品
+    public List<Item> getItemsByAddedTime(LocalDateTime from, LocalDateTime to) {
+        return items.addedTimeRange(from, to);
     }
 
     public List<Item> getAllItems() {
-        return new ArrayList<>(items);
+        return new ArrayList<>(snapshot());
+    }
+
+    // 不加鎖讀取已發佈的快照，只有在寫入後第一次讀取時才需要取得鎖重建
+    private List<Item> snapshot() {
+        List<Item> published = items.publishedSnapshot();
+        return published != null ? published : rebuildSnapshot();
+    }
+
+    private synchronized List<Item> rebuildSnapshot() {
+        return items.snapshot();
     }
 
-    private void saveItems() {
-        jsonHandler.saveItems(items, DATA_FILE);
+    // 將快照寫入 JSON 及二進位檔，啟用分片時只重寫有變動的分片
+    private boolean writeSnapshot(List<Item> snapshot) {
+        long start = metrics.start();
+        if (shardedHandler.isEnabled()) {
+            long before = shardedHandler.getBytesWritten();
+            boolean saved = shardedHandler.saveItems(snapshot);
+            metrics.record(Operation.SAVE, start, saved);
+            metrics.addBytesWritten(Operation.SAVE, shardedHandler.getBytesWritten() - before);
+            return saved;
+        }
+        if (!jsonHandler.saveItems(snapshot, dataFile)) {
+            metrics.record(Operation.SAVE, start, false);
+            return false;
+        }
+        long written = new File(dataFile).length();
+        if (binaryHandler != null) {
+            if (binaryHandler.saveItems(snapshot, binaryFile)) {
+                written += new File(binaryFile).length();
+            } else {
+                // 二進位快照寫入失敗時移除舊檔，避免下次啟動讀到過期資料
+                new File(binaryFile).delete();
+            }
+        }
+        metrics.record(Operation.SAVE, start);
+        metrics.addBytesWritten(Operation.SAVE, written);
+        return true;
+    }
+
+    // 日誌模式下只附加一筆紀錄 (合併寫入時只記錄編號)，否則重寫整個檔案
+    private void persistPut(Item item) {
+        if (deltaExecutor != null) {
+            markDirty(item.getCode(), item);
+            return;
+        }
+        if (journal != null && appendJournal(() -> journal.appendPut(item))) {
+            checkpointIfNeeded();
+        } else {
+            scheduleCheckpoint();
+        }
+    }
+
+    private void persistDelete(String code) {
+        if (deltaExecutor != null) {
+            markDirty(code, null);
+            return;
+        }
+        if (journal != null && appendJournal(() -> journal.appendDelete(code))) {
+            checkpointIfNeeded();
+        } else {
+            scheduleCheckpoint();
+        }
+    }
+
+    private void persistPuts(Collection<Item> changed) {
+        persistPuts(changed, false);
+    }
+
+    // 批次異動只寫入一次：小批次附加到日誌，大批次直接重寫快照
+    // deferCheckpoint 時不論大小都附加到日誌，避免匯入大量資料時每批都重寫整個快照
+    private void persistPuts(Collection<Item> changed, boolean deferCheckpoint) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        if (deltaExecutor != null && changed.size() < CHECKPOINT_THRESHOLD && !deferCheckpoint) {
+            changed.forEach(item -> markDirty(item.getCode(), item));
+            return;
+        }
+        if (deltaExecutor != null) {
+            // 先寫出尚未寫出的異動，日誌中的順序才會與實際順序相同
+            writeDeltas();
+        }
+        if (journal != null && (changed.size() < CHECKPOINT_THRESHOLD || deferCheckpoint)
+                && appendJournal(() -> journal.appendPuts(changed))) {
+            if (!deferCheckpoint) {
+                checkpointIfNeeded();
+            }
+        } else {
+            scheduleCheckpoint();
+        }
+    }
+
+    private void persistDeletes(Collection<String> codes) {
+        if (codes.isEmpty()) {
+            return;
+        }
+        if (deltaExecutor != null && codes.size() < CHECKPOINT_THRESHOLD) {
+            codes.forEach(code -> markDirty(code, null));
+            return;
+        }
+        if (journal != null && codes.size() < CHECKPOINT_THRESHOLD
+                && appendJournal(() -> journal.appendDeletes(codes))) {
+            checkpointIfNeeded();
+        } else {
+            scheduleCheckpoint();
+        }
+    }
+
+    // 附加日誌紀錄並記錄耗時與寫入量
+    private boolean appendJournal(BooleanSupplier append) {
+        long start = metrics.start();
+        long before = journal.getBytesWritten();
+        boolean appended = append.getAsBoolean();
+        metrics.record(Operation.JOURNAL, start, appended);
+        metrics.addBytesWritten(Operation.JOURNAL, journal.getBytesWritten() - before);
+        return appended;
+    }
+
+    // 記錄異動的編號，稍後由背景執行緒一次寫出；同一編號只保留最新的狀態
+    private void markDirty(String code, Item item) {
+        dirty.put(code, item);
+        if (!deltaScheduled) {
+            deltaScheduled = true;
+            deltaExecutor.schedule(this::flushDeltas, deltaDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushDeltas() {
+        synchronized (this) {
+            deltaScheduled = false;
+            writeDeltas();
+        }
+        writePendingCheckpoint();
+    }
+
+    // 把尚未寫出的異動附加為一段日誌；寫入失敗時改寫完整快照
+    private void writeDeltas() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Item> puts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (Map.Entry<String, Item> entry : dirty.entrySet()) {
+            if (entry.getValue() != null) {
+                puts.add(entry.getValue());
+            } else {
+                deletes.add(entry.getKey());
+            }
+        }
+        boolean appended = (puts.isEmpty() || appendJournal(() -> journal.appendPuts(puts)))
+                && (deletes.isEmpty() || appendJournal(() -> journal.appendDeletes(deletes)));
+        if (appended) {
+            dirty.clear();
+            checkpointIfNeeded();
+        } else {
+            scheduleCheckpoint();
+        }
+    }
+
+    // 批次匯入結束後，把匯入期間累積的日誌合併回快照
+    void finishImport() {
+        synchronized (this) {
+            if (journal != null) {
+                checkpointIfNeeded();
+            }
+        }
+        writePendingCheckpoint();
+    }
+
+    // 日誌的筆數或大小超過門檻時，在背景把日誌合併回快照
+    private void checkpointIfNeeded() {
+        if (journal.getRecordCount() >= CHECKPOINT_THRESHOLD || journal.getPendingBytes() >= CHECKPOINT_BYTES) {
+            scheduleCheckpoint();
+        }
+    }
+
+    // 重寫完整快照並清空日誌；啟用背景寫入時只排程，不等待寫入完成
+    public boolean checkpoint() {
+        synchronized (this) {
+            scheduleCheckpoint();
+        }
+        return writePendingCheckpoint();
+    }
+
+    // 在寫入鎖內擷取快照並切換日誌區段，實際寫入在釋放鎖之後，寫入期間讀取與其他寫入都不會被阻塞
+    private void scheduleCheckpoint() {
+        // 快照包含所有尚未寫出的異動
+        dirty.clear();
+        List<Item> snapshot = items.snapshot();
+        // 之後的異動寫到新區段，快照寫入磁碟後才刪除舊區段
+        int sealed = journal != null ? journal.rotate() : NO_SEGMENT;
+        if (snapshotWriter != null) {
+            snapshotWriter.submit(snapshot, sealed != NO_SEGMENT ? () -> journal.deleteSegmentsUpTo(sealed) : null);
+        } else {
+            // 還沒寫出的舊快照直接由較新的快照取代，較新的快照已包含舊快照的內容
+            pendingCheckpoint = new PendingCheckpoint(snapshot, sealed);
+        }
+    }
+
+    // 回傳 result 前寫出寫入鎖內排定的快照；呼叫端必須已釋放寫入鎖
+    private <T> T writeCheckpointAfter(T result) {
+        writePendingCheckpoint();
+        return result;
+    }
+
+    // 寫出排定的快照，寫入成功後才刪除被取代的日誌區段；沒有排定的快照時回傳上一次寫入的結果
+    private boolean writePendingCheckpoint() {
+        if (Thread.holdsLock(this)) {
+            // 巢狀呼叫時由最外層釋放寫入鎖後再寫
+            return true;
+        }
+        synchronized (checkpointLock) {
+            PendingCheckpoint pending;
+            synchronized (this) {
+                pending = pendingCheckpoint;
+                pendingCheckpoint = null;
+            }
+            if (pending == null) {
+                // 其他執行緒已經寫出包含這次異動的快照
+                return lastCheckpointSaved;
+            }
+            lastCheckpointSaved = writeSnapshot(pending.snapshot);
+            // 快照寫入失敗時保留日誌，下次啟動仍可重播
+            if (lastCheckpointSaved && pending.sealedSegment != NO_SEGMENT) {
+                journal.deleteSegmentsUpTo(pending.sealedSegment);
+            }
+            return lastCheckpointSaved;
+        }
+    }
+
+    // 立即寫出排程中的快照與日誌，回傳後資料已寫入磁碟
+    public boolean flush() {
+        boolean durable;
+        synchronized (this) {
+            writeDeltas();
+            durable = journal == null || journal.sync();
+        }
+        durable &= writePendingCheckpoint();
+        if (snapshotWriter != null) {
+            durable &= snapshotWriter.flush();
+        }
+        return durable;
+    }
+
+    // 等待目前為止的異動都寫入磁碟
+    public boolean awaitDurable(long timeout, TimeUnit unit) throws InterruptedException {
+        boolean durable;
+        synchronized (this) {
+            writeDeltas();
+            durable = journal == null || journal.sync();
+        }
+        durable &= writePendingCheckpoint();
+        if (snapshotWriter != null) {
+            durable &= snapshotWriter.awaitDurable(timeout, unit);
+        }
+        return durable;
+    }
+
+    // 各項操作的次數、耗時與寫入量
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // 關閉前寫出所有尚未寫入的資料
+    public void close() {
+        synchronized (this) {
+            if (deltaExecutor != null) {
+                deltaExecutor.shutdownNow();
+                writeDeltas();
+            }
+        }
+        writePendingCheckpoint();
+        synchronized (this) {
+            codeAllocator.close();
+            if (snapshotWriter != null) {
+                snapshotWriter.close();
+            }
+            if (journal != null) {
+                journal.sync();
+                journal.close();
+            }
+        }
     }
 
     // 匯出資料到Excel檔案
     public boolean exportToExcel(String filePath) {
-        try (Workbook workbook = new XSSFWorkbook()) {
+        return exportToExcel(filePath, EXPORT_ROW_WINDOW);
+    }
+
+    // 以串流方式匯出，記憶體中最多只保留 rowWindow 列，其餘列直接寫到暫存檔
+    public boolean exportToExcel(String filePath, int rowWindow) {
+        return exportToExcel(filePath, rowWindow, ProgressListener.NONE);
+    }
+
+    public boolean exportToExcel(String filePath, ProgressListener progress) {
+        return exportToExcel(filePath, EXPORT_ROW_WINDOW, progress);
+    }
+
+    // 每寫入一段列數回報一次進度；取消時不寫出檔案並回傳 false
+    public boolean exportToExcel(String filePath, int rowWindow, ProgressListener progress) {
+        long start = metrics.start();
+        boolean exported = writeExcel(filePath, rowWindow, progress);
+        metrics.record(Operation.EXPORT, start);
+        if (exported) {
+            metrics.addBytesWritten(Operation.EXPORT, new File(filePath).length());
+        }
+        return exported;
+    }
+
+    private boolean writeExcel(String filePath, int rowWindow, ProgressListener progress) {
+        List<Item> exportItems = snapshot();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        try {
             Sheet sheet = workbook.createSheet("物品清單");
             
             // 建立標題樣式
@@ -228,9 +1090,22 @@ public class ItemManager {
                 cell.setCellStyle(headerStyle);
             }
             
+            // 欄寬依抽樣資料的字串長度決定，不使用需要掃描所有列的 autoSizeColumn
+            int[] columnChars = sampleColumnWidths(headers, exportItems);
+            for (int i = 0; i < headers.length; i++) {
+                sheet.setColumnWidth(i, Math.max(3000, Math.min(255, columnChars[i] + 2) * 256));
+            }
+            
             // 填入資料
             int rowNum = 1;
-            for (Item item : items) {
+            long withImageCount = 0;
+            for (Item item : exportItems) {
+                if (rowNum % EXPORT_PROGRESS_STEP == 0) {
+                    if (progress.isCancelled()) {
+                        return false;
+                    }
+                    progress.progress(rowNum, exportItems.size());
+                }
                 Row row = sheet.createRow(rowNum++);
                 
                 // 品名
@@ -245,7 +1120,8 @@ public class ItemManager {
                 
                 // 加入時間
                 Cell timeCell = row.createCell(2);
-                timeCell.setCellValue(item.getFormattedAddedTime());
+                // 不使用 getFormattedAddedTime，避免匯出後每個物品都保留一份格式化字串
+                timeCell.setCellValue(Timestamps.format(item.getAddedEpochSecond()));
                 timeCell.setCellStyle(dataStyle);
                 
                 // 價格
@@ -255,19 +1131,12 @@ public class ItemManager {
                 
                 // 圖片狀態
                 Cell imageCell = row.createCell(4);
-                String imageStatus = (item.getImagePath() != null && !item.getImagePath().trim().isEmpty()) 
-                    ? "有圖片" : "無圖片";
-                imageCell.setCellValue(imageStatus);
-                imageCell.setCellStyle(dataStyle);
-            }
-            
-            // 自動調整欄寬
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-                // 確保最小寬度
-                if (sheet.getColumnWidth(i) < 3000) {
-                    sheet.setColumnWidth(i, 3000);
+                boolean hasImage = item.getImagePath() != null && !item.getImagePath().trim().isEmpty();
+                if (hasImage) {
+                    withImageCount++;
                 }
+                imageCell.setCellValue(hasImage ? "有圖片" : "無圖片");
+                imageCell.setCellStyle(dataStyle);
             }
             
             // 新增摘要資訊
@@ -279,33 +1148,76 @@ public class ItemManager {
             
             Row totalCountRow = sheet.createRow(summaryRowStart + 1);
             totalCountRow.createCell(0).setCellValue("總物品數量:");
-            totalCountRow.createCell(1).setCellValue(items.size());
+            totalCountRow.createCell(1).setCellValue(exportItems.size());
             
             Row withImageRow = sheet.createRow(summaryRowStart + 2);
             withImageRow.createCell(0).setCellValue("有圖片物品:");
-            long withImageCount = items.stream().filter(item -> 
-                item.getImagePath() != null && !item.getImagePath().trim().isEmpty()).count();
             withImageRow.createCell(1).setCellValue(withImageCount);
             
             Row withoutImageRow = sheet.createRow(summaryRowStart + 3);
             withoutImageRow.createCell(0).setCellValue("無圖片物品:");
-            withoutImageRow.createCell(1).setCellValue(items.size() - withImageCount);
+            withoutImageRow.createCell(1).setCellValue(exportItems.size() - withImageCount);
             
             Row exportTimeRow = sheet.createRow(summaryRowStart + 4);
             exportTimeRow.createCell(0).setCellValue("匯出時間:");
-            exportTimeRow.createCell(1).setCellValue(LocalDateTime.now().format(
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+            exportTimeRow.createCell(1).setCellValue(Timestamps.format(Timestamps.now()));
             
             // 寫入檔案
             try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
                 workbook.write(fileOut);
             }
+            if (progress.isCancelled()) {
+                // 寫檔期間被取消，不留下檔案
+                new File(filePath).delete();
+                return false;
+            }
+            progress.progress(exportItems.size(), exportItems.size());
             
             return true;
             
         } catch (IOException e) {
             System.err.println("匯出Excel檔案時發生錯誤: " + e.getMessage());
+            metrics.recordError(Operation.EXPORT);
             return false;
+        } finally {
+            // 刪除 SXSSF 產生的暫存檔
+            workbook.dispose();
+            try {
+                workbook.close();
+            } catch (IOException e) {
+                System.err.println("關閉Excel活頁簿時發生錯誤: " + e.getMessage());
+            }
+        }
+    }
+
+    // 以標題及前幾筆資料估計各欄需要的字元寬度 (全形字元算兩個字寬)
+    private int[] sampleColumnWidths(String[] headers, List<Item> exportItems) {
+        int[] widths = new int[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            widths[i] = displayWidth(headers[i]);
+        }
+        widths[2] = Math.max(widths[2], Timestamps.LENGTH); // yyyy-MM-dd HH:mm:ss
+        widths[4] = Math.max(widths[4], displayWidth("無圖片"));
+
+        int samples = Math.min(exportItems.size(), EXPORT_WIDTH_SAMPLE);
+        int step = Math.max(1, exportItems.size() / Math.max(1, samples));
+        for (int i = 0; i < exportItems.size(); i += step) {
+            Item item = exportItems.get(i);
+            widths[0] = Math.max(widths[0], displayWidth(item.getName()));
+            widths[1] = Math.max(widths[1], displayWidth(item.getCode()));
+            widths[3] = Math.max(widths[3], Double.toString(item.getPrice()).length());
+        }
+        return widths;
+    }
+
+    private static int displayWidth(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            width += text.charAt(i) < 0x1100 ? 1 : 2;
         }
+        return width;
     }
 } 
\ No newline at end of file
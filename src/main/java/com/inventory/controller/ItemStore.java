@@ -0,0 +1,169 @@
+package com.inventory.controller;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.inventory.model.Item;
+import com.inventory.model.Timestamps;
+import com.inventory.utils.CodeAllocator;
+
+/**
+ * 物品的記憶體儲存區
+ * 以編號為鍵的雜湊索引保存物品，並維持加入順序；
+ * 查詢、新增、更新與刪除都是常數時間。搜尋用的 n-gram 索引與各欄位的排序索引也在這裡同步維護。
+ *
+ * 執行緒模型：同一時間只允許一個寫入者 (由 ItemManager 負責序列化)，
+ * get / contains / size / search 則可由任意執行緒在不加鎖的情況下呼叫。
+ * 完整清單以不可變快照的形式發佈，寫入後才重建。
+ * 記憶體用量較少的替代實作見 ColumnarItemStore。
+ */
+public class ItemStore implements InventoryStore {
+    private final Map<String, Item> byCode = new LinkedHashMap<>(); // 只由寫入者存取，用來維持順序
+    private final Map<String, Item> lookup = new ConcurrentHashMap<>(); // 供讀取者查詢
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final SortedIndex<Double> priceIndex = new SortedIndex<>(Item::getPrice, Comparator.naturalOrder());
+    private final SortedIndex<Long> addedTimeIndex =
+        new SortedIndex<>(Item::getAddedEpochSecond, Comparator.naturalOrder());
+    private final Map<SortField, SortedIndex<?>> sortedIndexes = new EnumMap<>(SortField.class);
+    private volatile List<Item> snapshot = Collections.emptyList(); // 寫入後設為 null，待下次重建
+    private volatile long version; // 每次寫入加一，只有寫入者會修改
+
+    public ItemStore() {
+        sortedIndexes.put(SortField.NAME, new SortedIndex<>(Item::getName, Comparator.<String>naturalOrder()));
+        sortedIndexes.put(SortField.CODE, new SortedIndex<>(Item::getCode, CodeAllocator.NATURAL_ORDER));
+        sortedIndexes.put(SortField.ADDED_TIME, addedTimeIndex);
+        sortedIndexes.put(SortField.PRICE, priceIndex);
+        // 與以前比較「有圖片」/「無圖片」文字的順序相同：遞增排序時有圖片的物品在前
+        sortedIndexes.put(SortField.HAS_IMAGE, new SortedIndex<>(ItemStore::hasImage, Comparator.<Boolean>reverseOrder()));
+    }
+
+    private static boolean hasImage(Item item) {
+        return item.getImagePath() != null && !item.getImagePath().trim().isEmpty();
+    }
+
+    public Item get(String code) {
+        return code != null ? lookup.get(code) : null;
+    }
+
+    public boolean contains(String code) {
+        return code != null && lookup.containsKey(code);
+    }
+
+    // 編號已存在時不加入並回傳 false
+    public boolean add(Item item) {
+        if (byCode.putIfAbsent(item.getCode(), item) != null) {
+            return false;
+        }
+        lookup.put(item.getCode(), item);
+        searchIndex.add(item);
+        indexSorted(item);
+        snapshot = null;
+        version++;
+        return true;
+    }
+
+    // 新增或取代同編號的物品 (取代時保留原本的順序)，回傳被取代的物品
+    public Item put(Item item) {
+        Item previous = byCode.put(item.getCode(), item);
+        lookup.put(item.getCode(), item);
+        if (previous != null) {
+            searchIndex.replace(previous, item);
+            unindexSorted(previous);
+        } else {
+            searchIndex.add(item);
+        }
+        indexSorted(item);
+        snapshot = null;
+        version++;
+        return previous;
+    }
+
+    public Item remove(String code) {
+        Item removed = byCode.remove(code);
+        if (removed != null) {
+            lookup.remove(code);
+            searchIndex.remove(removed);
+            unindexSorted(removed);
+            snapshot = null;
+            version++;
+        }
+        return removed;
+    }
+
+    // 品名或編號包含關鍵字的物品，依加入順序排列
+    public List<Item> search(String keyword) {
+        return searchIndex.search(keyword);
+    }
+
+    private void indexSorted(Item item) {
+        for (SortedIndex<?> index : sortedIndexes.values()) {
+            index.add(item);
+        }
+    }
+
+    private void unindexSorted(Item item) {
+        for (SortedIndex<?> index : sortedIndexes.values()) {
+            index.remove(item);
+        }
+    }
+
+    // 依欄位排序的全部物品
+    public List<Item> sorted(SortField field, boolean ascending) {
+        return sortedIndexes.get(field).sorted(ascending);
+    }
+
+    // 依欄位排序後從 offset 開始的 limit 筆
+    public List<Item> sortedPage(SortField field, boolean ascending, int offset, int limit) {
+        return sortedIndexes.get(field).page(ascending, offset, limit);
+    }
+
+    // 價格介於 min 與 max 之間 (包含兩端) 的物品，依價格排列
+    public List<Item> priceRange(double min, double max) {
+        return priceIndex.range(min, max);
+    }
+
+    // 加入時間介於 from 與 to 之間 (包含兩端) 的物品，依加入時間排列
+    public List<Item> addedTimeRange(LocalDateTime from, LocalDateTime to) {
+        return addedTimeIndex.range(Timestamps.toEpochSecond(from), Timestamps.toEpochSecond(to));
+    }
+
+    // 物品的品名或編號是否包含已轉為小寫的查詢字串
+    public boolean matches(Item item, String query) {
+        return searchIndex.matches(item, query);
+    }
+
+    // 資料版本，任何異動後都會改變
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return lookup.size();
+    }
+
+    public boolean isEmpty() {
+        return lookup.isEmpty();
+    }
+
+    // 目前已發佈的快照；自上次寫入後尚未重建時回傳 null
+    public List<Item> publishedSnapshot() {
+        return snapshot;
+    }
+
+    // 依加入順序的不可變快照，需要時重建；必須由寫入者 (持有寫入鎖) 呼叫
+    public List<Item> snapshot() {
+        List<Item> current = snapshot;
+        if (current == null) {
+            current = Collections.unmodifiableList(new ArrayList<>(byCode.values()));
+            snapshot = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,24 @@
+package com.inventory.controller;
+
+/**
+ * 長時間作業的進度回報與取消
+ * 作業會定期回報進度，並在每一步之前檢查是否已被取消。
+ */
+public interface ProgressListener {
+
+    // 不回報進度也不能取消
+    ProgressListener NONE = new ProgressListener() {
+        @Override
+        public void progress(long done, long total) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    void progress(long done, long total);
+
+    boolean isCancelled();
+}
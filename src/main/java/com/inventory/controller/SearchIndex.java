@@ -0,0 +1,183 @@
+package com.inventory.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.inventory.model.Item;
+
+/**
+ * 品名與編號的字元 n-gram 反向索引
+ * 品名多為中文，無法以空白斷詞，因此以單字、相鄰兩字 (bigram) 與相鄰三字 (trigram) 建立索引：
+ * 一個字的查詢直接取單字的 posting list，兩個字取 bigram，三個字以上取查詢字串中所有 trigram 的
+ * posting list 求交集 (由最小的 list 開始，逐筆確認是否在其他 list 中)，最後再逐筆確認是否真的包含查詢字串。
+ * 搜尋成本只與最小的 posting list 及結果數量有關，不隨庫存總量成長。
+ *
+ * 只允許單一寫入者；搜尋可在其他執行緒不加鎖地進行 (弱一致性，
+ * 與寫入同時進行的搜尋可能看到寫入前或寫入後的結果，但每筆物品的內容是一致的)。
+ */
+public class SearchIndex {
+    private static final int MAX_GRAM = 3; // 索引的最長 gram (trigram)
+
+    private final Map<String, Set<Item>> postings = new ConcurrentHashMap<>();
+    private final Map<Item, Entry> entries = new ConcurrentHashMap<>(); // Item 未覆寫 equals，以物件本身為鍵
+    private long nextSequence;
+
+    // 已建立索引的物品與建立索引時的小寫文字，建立後不再修改
+    private static class Entry {
+        final Item item;
+        final long sequence; // 用來維持加入順序
+        final String name;
+        final String code;
+
+        Entry(Item item, long sequence) {
+            this.item = item;
+            this.sequence = sequence;
+            this.name = lower(item.getName());
+            this.code = lower(item.getCode());
+        }
+    }
+
+    public void add(Item item) {
+        Entry entry = new Entry(item, nextSequence++);
+        entries.put(item, entry);
+        index(entry);
+    }
+
+    // 以新物品取代舊物品，保留舊物品的順序
+    public void replace(Item previous, Item item) {
+        Entry old = entries.remove(previous);
+        if (old == null) {
+            add(item);
+            return;
+        }
+        unindex(old);
+        Entry entry = new Entry(item, old.sequence);
+        entries.put(item, entry);
+        index(entry);
+    }
+
+    public void remove(Item item) {
+        Entry entry = entries.remove(item);
+        if (entry != null) {
+            unindex(entry);
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        entries.clear();
+    }
+
+    // 回傳品名或編號包含 keyword (不分大小寫) 的物品，依加入順序排列
+    public List<Item> search(String keyword) {
+        String query = keyword.toLowerCase(Locale.ROOT);
+        List<Set<Item>> lists = postingLists(query);
+        if (lists == null) {
+            return new ArrayList<>();
+        }
+        // 由最小的 posting list 開始，其他 list 只用來確認是否包含
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Item> smallest = lists.get(0);
+        List<Set<Item>> others = lists.subList(1, lists.size());
+
+        List<Entry> matches = new ArrayList<>();
+        for (Item item : smallest) {
+            if (!inAll(item, others)) {
+                continue;
+            }
+            Entry entry = entries.get(item);
+            // 與寫入同時進行時，物品可能已被移除；gram 都出現也不代表相連，仍需確認
+            if (entry != null && (entry.name.contains(query) || entry.code.contains(query))) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator.comparingLong(entry -> entry.sequence));
+
+        List<Item> results = new ArrayList<>(matches.size());
+        for (Entry entry : matches) {
+            results.add(entry.item);
+        }
+        return results;
+    }
+
+    // 物品的品名或編號是否包含 query (須已轉為小寫)；物品不在索引中時回傳 false
+    public boolean matches(Item item, String query) {
+        Entry entry = entries.get(item);
+        return entry != null && (entry.name.contains(query) || entry.code.contains(query));
+    }
+
+    // 查詢字串所需的 posting list (一或兩個字時為單一的 list，否則為所有 trigram 的 list)；
+    // 任一 gram 不存在時不可能有結果，回傳 null
+    private List<Set<Item>> postingLists(String query) {
+        int gramLength = Math.min(query.length(), MAX_GRAM);
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + gramLength <= query.length(); i++) {
+            grams.add(query.substring(i, i + gramLength));
+        }
+        List<Set<Item>> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Set<Item> posting = postings.get(gram);
+            if (posting == null) {
+                return null;
+            }
+            lists.add(posting);
+        }
+        return lists.isEmpty() ? null : lists;
+    }
+
+    private static boolean inAll(Item item, List<Set<Item>> lists) {
+        for (Set<Item> list : lists) {
+            if (!list.contains(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void index(Entry entry) {
+        for (String gram : grams(entry)) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(entry.item);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (String gram : grams(entry)) {
+            Set<Item> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(entry.item);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(Entry entry) {
+        if (entry.name.isEmpty() && entry.code.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<>();
+        addGrams(entry.name, grams);
+        addGrams(entry.code, grams);
+        return grams;
+    }
+
+    private static void addGrams(String text, Set<String> grams) {
+        for (int i = 0; i < text.length(); i++) {
+            for (int length = 1; length <= MAX_GRAM && i + length <= text.length(); length++) {
+                grams.add(text.substring(i, i + length));
+            }
+        }
+    }
+
+    private static String lower(String text) {
+        return text != null ? text.toLowerCase(Locale.ROOT) : "";
+    }
+}
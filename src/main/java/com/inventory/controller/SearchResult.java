@@ -0,0 +1,39 @@
+package com.inventory.controller;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.inventory.model.Item;
+
+/**
+ * 一次搜尋的結果
+ * 記錄查詢字串與搜尋當時的資料版本，下一次查詢若只是在這個查詢字串後面多打幾個字，
+ * 且資料沒有異動，就可以直接從這份結果中篩選，不必重新搜尋全部物品。
+ */
+public class SearchResult {
+    private final String query; // 小寫的查詢字串，空字串代表全部物品
+    private final long version;
+    private final List<Item> items;
+
+    SearchResult(String query, long version, List<Item> items) {
+        this.query = query;
+        this.version = version;
+        this.items = Collections.unmodifiableList(items);
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
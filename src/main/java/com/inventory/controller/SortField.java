@@ -0,0 +1,12 @@
+package com.inventory.controller;
+
+/**
+ * 可排序的物品欄位，每個欄位都有一個持續維護的排序索引
+ */
+public enum SortField {
+    NAME,
+    CODE,
+    ADDED_TIME,
+    PRICE,
+    HAS_IMAGE
+}
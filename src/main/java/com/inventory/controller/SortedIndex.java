@@ -0,0 +1,99 @@
+package com.inventory.controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+import com.inventory.model.Item;
+import com.inventory.utils.CodeAllocator;
+
+/**
+ * 依單一欄位排序的物品索引
+ * 以 (欄位值, 編號) 為鍵保存在跳躍串列中，新增、移除都是 O(log n)，
+ * 排序結果只需依序走訪，區間查詢只走訪區間內的物品。欄位值相同時依編號排序。
+ *
+ * 只允許單一寫入者；讀取可在其他執行緒不加鎖地進行 (弱一致性，
+ * 與更新同時進行的走訪可能暫時看不到正在被取代的物品)。
+ */
+public class SortedIndex<K> {
+    private final Function<Item, K> keyOf;
+    private final Comparator<K> keyOrder;
+    private final NavigableMap<Key<K>, Item> entries;
+
+    // 索引鍵；bound 不為 0 時代表區間查詢的邊界，排在同值所有物品之前 (-1) 或之後 (1)
+    private static final class Key<K> {
+        final K value;
+        final String code;
+        final int bound;
+
+        Key(K value, String code, int bound) {
+            this.value = value;
+            this.code = code;
+            this.bound = bound;
+        }
+    }
+
+    public SortedIndex(Function<Item, K> keyOf, Comparator<K> keyOrder) {
+        this.keyOf = keyOf;
+        this.keyOrder = Comparator.nullsFirst(keyOrder);
+        this.entries = new ConcurrentSkipListMap<>(this::compare);
+    }
+
+    private int compare(Key<K> a, Key<K> b) {
+        int result = keyOrder.compare(a.value, b.value);
+        if (result != 0) {
+            return result;
+        }
+        if (a.bound != 0 || b.bound != 0) {
+            return Integer.compare(a.bound, b.bound);
+        }
+        return CodeAllocator.NATURAL_ORDER.compare(a.code, b.code);
+    }
+
+    private Key<K> keyFor(Item item) {
+        return new Key<>(keyOf.apply(item), item.getCode(), 0);
+    }
+
+    public void add(Item item) {
+        entries.put(keyFor(item), item);
+    }
+
+    public void remove(Item item) {
+        entries.remove(keyFor(item));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    // 依排序走訪全部物品
+    public List<Item> sorted(boolean ascending) {
+        return page(ascending, 0, Integer.MAX_VALUE);
+    }
+
+    // 排序後從 offset 開始的 limit 筆，只走訪到需要的位置為止
+    public List<Item> page(boolean ascending, int offset, int limit) {
+        NavigableMap<Key<K>, Item> view = ascending ? entries : entries.descendingMap();
+        List<Item> results = new ArrayList<>(Math.min(limit, 1024));
+        Iterator<Item> iterator = view.values().iterator();
+        for (int skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (results.size() < limit && iterator.hasNext()) {
+            results.add(iterator.next());
+        }
+        return results;
+    }
+
+    // 欄位值介於 from 與 to 之間 (包含兩端) 的物品，依欄位值遞增排列
+    public List<Item> range(K from, K to) {
+        if (keyOrder.compare(from, to) > 0) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(entries.subMap(new Key<>(from, null, -1), true, new Key<>(to, null, 1), true).values());
+    }
+}
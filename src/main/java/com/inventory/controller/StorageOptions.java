@@ -0,0 +1,122 @@
+package com.inventory.controller;
+
+/**
+ * ItemManager 的儲存設定
+ */
+public class StorageOptions {
+    private static final String SHARDS_PROPERTY = "inventory.shards"; // 以 -Dinventory.shards=16 啟用分片
+    private static final String DELTA_WRITES_PROPERTY = "inventory.deltaWrites"; // 以 -Dinventory.deltaWrites=true 啟用合併寫入
+    private static final String COLUMNAR_PROPERTY = "inventory.columnar"; // 以 -Dinventory.columnar=true 啟用欄式儲存
+    private boolean journaled = true;
+    private boolean binarySnapshot = false;
+    private boolean asyncWrites = false;
+    private long writeDelayMillis = 500;
+    private String codePrefix = "ITEM";
+    private int codeWidth = 4;
+    private int shards = 0;
+    private boolean deltaWrites = false;
+    private boolean columnar = false;
+
+    // 應用程式預設使用的設定
+    public static StorageOptions defaults() {
+        return new StorageOptions()
+                .journaled(true)
+                .binarySnapshot(true)
+                .asyncWrites(true)
+                .shards(Integer.getInteger(SHARDS_PROPERTY, 0))
+                .deltaWrites(Boolean.getBoolean(DELTA_WRITES_PROPERTY))
+                .columnar(Boolean.getBoolean(COLUMNAR_PROPERTY));
+    }
+
+    // 每次異動附加到日誌，只在檢查點重寫快照
+    public StorageOptions journaled(boolean journaled) {
+        this.journaled = journaled;
+        return this;
+    }
+
+    // 在 JSON 旁另存二進位快照，啟動時優先讀取
+    public StorageOptions binarySnapshot(boolean binarySnapshot) {
+        this.binarySnapshot = binarySnapshot;
+        return this;
+    }
+
+    // 快照改由背景執行緒寫入，短時間內的多次寫入合併為一次
+    public StorageOptions asyncWrites(boolean asyncWrites) {
+        this.asyncWrites = asyncWrites;
+        return this;
+    }
+
+    // 背景寫入前等待的時間，用來合併連續的異動
+    public StorageOptions writeDelayMillis(long writeDelayMillis) {
+        this.writeDelayMillis = writeDelayMillis;
+        return this;
+    }
+
+    // 自動產生編號的前綴與數字位數 (不足補零)
+    public StorageOptions codeFormat(String codePrefix, int codeWidth) {
+        this.codePrefix = codePrefix;
+        this.codeWidth = codeWidth;
+        return this;
+    }
+
+    // 快照分成 shards 個檔案平行讀取，寫入時只重寫有變動的檔案；0 表示使用單一的 data.json
+    // 啟用分片時不另存二進位快照
+    public StorageOptions shards(int shards) {
+        if (shards < 0) {
+            throw new IllegalArgumentException("shards 不可為負數");
+        }
+        this.shards = shards;
+        return this;
+    }
+
+    // 日誌模式下不逐筆附加，而是記錄上次寫出後異動的編號，每隔 writeDelayMillis 把這些物品的最新狀態
+    // 一次寫成一段日誌；同一物品多次修改只寫一筆。程式異常結束時可能遺失最後一段時間內的異動
+    // 必須同時啟用 journaled，否則 ItemManager 會拋出 IllegalArgumentException
+    public StorageOptions deltaWrites(boolean deltaWrites) {
+        this.deltaWrites = deltaWrites;
+        return this;
+    }
+
+    // 記憶體中以基本型別陣列與字串字典保存物品 (ColumnarItemStore)，數百萬筆時記憶體用量少很多；
+    // 搜尋與排序改為掃描陣列，比預設的索引慢
+    public StorageOptions columnar(boolean columnar) {
+        this.columnar = columnar;
+        return this;
+    }
+
+    public boolean isJournaled() {
+        return journaled;
+    }
+
+    public boolean isBinarySnapshot() {
+        return binarySnapshot;
+    }
+
+    public boolean isAsyncWrites() {
+        return asyncWrites;
+    }
+
+    public long getWriteDelayMillis() {
+        return writeDelayMillis;
+    }
+
+    public String getCodePrefix() {
+        return codePrefix;
+    }
+
+    public int getCodeWidth() {
+        return codeWidth;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public boolean isDeltaWrites() {
+        return deltaWrites;
+    }
+
+    public boolean isColumnar() {
+        return columnar;
+    }
+}
@@ -0,0 +1,207 @@
+package com.inventory.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * 各項操作的次數、耗時分布與寫入量
+ * 使用方式: long start = metrics.start(); ... metrics.record(Operation.SAVE, start);
+ * 每次記錄只需讀兩次時鐘及幾次原子加法，可以一直開著；停用時 start 回傳 0，record 不做任何事。
+ */
+public class Metrics implements MetricsMXBean {
+    public static final String DEFAULT_NAME = "com.inventory:type=Metrics"; // 應用程式註冊的 JMX 名稱
+    public static final String INTERVAL_PROPERTY = "inventory.metrics.interval"; // 定期輸出統計的秒數
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final LongAdder[] errors = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] bytes = new LongAdder[OPERATIONS.length];
+    private volatile boolean enabled = true;
+    private volatile IntSupplier itemCount = () -> 0;
+    private volatile IntSupplier imageCount = () -> 0;
+    private volatile LongSupplier thumbnailHits = () -> 0;
+    private volatile LongSupplier thumbnailMisses = () -> 0;
+
+    public Metrics() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            errors[i] = new LongAdder();
+            bytes[i] = new LongAdder();
+        }
+    }
+
+    // 提供目前物品數與圖片數的來源
+    public void setGauges(IntSupplier itemCount, IntSupplier imageCount) {
+        this.itemCount = itemCount;
+        this.imageCount = imageCount;
+    }
+
+    // 提供預覽縮圖快取命中與未命中次數的來源
+    public void setThumbnailGauges(LongSupplier hits, LongSupplier misses) {
+        this.thumbnailHits = hits;
+        this.thumbnailMisses = misses;
+    }
+
+    // 操作開始的時間，停用時回傳 0
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    // 記錄從 start 到現在的耗時
+    public void record(Operation operation, long start) {
+        if (start != 0) {
+            latencies[operation.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    // 記錄耗時並在失敗時計入錯誤次數
+    public void record(Operation operation, long start, boolean succeeded) {
+        record(operation, start);
+        if (!succeeded) {
+            recordError(operation);
+        }
+    }
+
+    public void recordError(Operation operation) {
+        if (enabled) {
+            errors[operation.ordinal()].increment();
+        }
+    }
+
+    public void addBytesWritten(Operation operation, long count) {
+        if (enabled && count > 0) {
+            bytes[operation.ordinal()].add(count);
+        }
+    }
+
+    public OperationStats stats(Operation operation) {
+        int i = operation.ordinal();
+        LatencyHistogram latency = latencies[i];
+        return new OperationStats(operation.name(), latency.getCount(), errors[i].sum(), bytes[i].sum(),
+                latency.getMeanNanos() / 1000.0,
+                latency.getPercentileNanos(0.50) / 1000.0,
+                latency.getPercentileNanos(0.99) / 1000.0,
+                latency.getMaxNanos() / 1000.0);
+    }
+
+    @Override
+    public Map<String, OperationStats> getOperations() {
+        Map<String, OperationStats> operations = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS) {
+            operations.put(operation.name(), stats(operation));
+        }
+        return operations;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        long total = 0;
+        for (LongAdder counter : bytes) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public int getItemCount() {
+        return itemCount.getAsInt();
+    }
+
+    @Override
+    public int getImageCount() {
+        return imageCount.getAsInt();
+    }
+
+    @Override
+    public long getThumbnailHits() {
+        return thumbnailHits.getAsLong();
+    }
+
+    @Override
+    public long getThumbnailMisses() {
+        return thumbnailMisses.getAsLong();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            latencies[i].reset();
+            errors[i].reset();
+            bytes[i].reset();
+        }
+    }
+
+    // 只列出有發生過的操作
+    @Override
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        text.append("items=").append(getItemCount())
+                .append(" images=").append(getImageCount())
+                .append(" bytesWritten=").append(getBytesWritten());
+        long hits = getThumbnailHits();
+        long misses = getThumbnailMisses();
+        if (hits + misses > 0) {
+            text.append(" thumbnailHits=").append(hits).append(" thumbnailMisses=").append(misses);
+        }
+        for (Operation operation : OPERATIONS) {
+            OperationStats stats = stats(operation);
+            if (stats.getCount() > 0 || stats.getErrors() > 0) {
+                text.append(System.lineSeparator()).append("  ").append(stats);
+            }
+        }
+        return text.toString();
+    }
+
+    // 應用程式啟動時的設定：一律以 DEFAULT_NAME 註冊到 JMX，
+    // 以 -Dinventory.metrics.interval=秒數 啟動時另外定期輸出到標準輸出
+    // 回傳定期輸出的 MetricsReporter (關閉時呼叫 close)，沒有設定輸出間隔時回傳 null
+    public MetricsReporter registerDefault() {
+        try {
+            register(DEFAULT_NAME);
+        } catch (JMException e) {
+            System.err.println("註冊統計資料時發生錯誤: " + e.getMessage());
+        }
+        long interval = Long.getLong(INTERVAL_PROPERTY, 0);
+        return interval > 0 ? new MetricsReporter(this, System.out, interval) : null;
+    }
+
+    // 註冊到平台的 MBeanServer，例如 com.inventory:type=Metrics
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName(name);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        server.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    public void unregister(ObjectName objectName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("取消註冊統計資料時發生錯誤: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.inventory.metrics;
+
+import java.util.Map;
+
+/**
+ * 透過 JMX (例如 JConsole、VisualVM) 讀取的統計資料
+ */
+public interface MetricsMXBean {
+
+    // key 為操作名稱 (Operation 的名稱)
+    Map<String, OperationStats> getOperations();
+
+    long getBytesWritten();
+
+    int getItemCount();
+
+    int getImageCount();
+
+    // 預覽縮圖快取的命中與未命中次數 (沒有開啟視窗時為 0)
+    long getThumbnailHits();
+
+    long getThumbnailMisses();
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    // 清除所有次數與耗時，之後的統計重新開始
+    void reset();
+
+    // 以文字列出目前所有統計值
+    String dump();
+}
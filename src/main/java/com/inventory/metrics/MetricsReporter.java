@@ -0,0 +1,40 @@
+package com.inventory.metrics;
+
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.inventory.model.Timestamps;
+
+/**
+ * 定期把統計資料輸出到指定的串流 (例如 System.out 或記錄檔)
+ * 在專用的背景執行緒執行，不會延遲關閉應用程式。
+ */
+public class MetricsReporter {
+    private final Metrics metrics;
+    private final PrintStream out;
+    private final ScheduledExecutorService executor;
+
+    public MetricsReporter(Metrics metrics, PrintStream out, long periodSeconds) {
+        this.metrics = metrics;
+        this.out = out;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::report, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public void report() {
+        out.println("[metrics " + Timestamps.format(Timestamps.now()) + "] " + metrics.dump());
+        out.flush();
+    }
+
+    // 停止定期輸出，並輸出最後一次統計
+    public void close() {
+        executor.shutdownNow();
+        report();
+    }
+}
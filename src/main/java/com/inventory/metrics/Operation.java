@@ -0,0 +1,18 @@
+package com.inventory.metrics;
+
+/**
+ * 有記錄次數與耗時的操作
+ */
+public enum Operation {
+    LOAD,       // 啟動時載入快照與重播日誌
+    SAVE,       // 寫入完整快照
+    JOURNAL,    // 附加日誌紀錄
+    SEARCH,
+    LOOKUP,     // 依編號查詢
+    ADD,
+    UPDATE,
+    DELETE,
+    BATCH,      // 批次新增、修改或刪除
+    IMAGE_COPY, // 匯入一張圖片 (含產生縮圖)
+    EXPORT
+}
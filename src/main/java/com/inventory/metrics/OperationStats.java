@@ -0,0 +1,70 @@
+package com.inventory.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * 單一操作在某個時間點的統計值，時間以微秒為單位
+ * 可透過 JMX 以 CompositeData 讀取。
+ */
+public class OperationStats {
+    private final String operation;
+    private final long count;
+    private final long errors;
+    private final long bytesWritten;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+
+    @ConstructorProperties({"operation", "count", "errors", "bytesWritten",
+            "meanMicros", "p50Micros", "p99Micros", "maxMicros"})
+    public OperationStats(String operation, long count, long errors, long bytesWritten,
+            double meanMicros, double p50Micros, double p99Micros, double maxMicros) {
+        this.operation = operation;
+        this.count = count;
+        this.errors = errors;
+        this.bytesWritten = bytesWritten;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-10s count=%d errors=%d bytes=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus",
+                operation, count, errors, bytesWritten, meanMicros, p50Micros, p99Micros, maxMicros);
+    }
+}
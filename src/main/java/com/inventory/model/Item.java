@@ -1,32 +1,32 @@
 package com.inventory.model;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
-public class Item {
-    private String name;
-    private String code;
-    private LocalDateTime addedTime;
-    private double price;
-    private String imagePath;
-
-    public Item() {
-        this.addedTime = LocalDateTime.now();
-        this.imagePath = "";
-    }
+/**
+ * 物品 (不可變)
+ * 物品發佈到 ItemStore 後，讀取端不加鎖直接存取，因此建立後任何欄位都不能再修改；
+ * 修改物品一律建立新的 Item 取代舊的。
+ */
+public final class Item {
+    private final String name;
+    private final String code;
+    private final long addedTime; // epoch 秒 (見 Timestamps)，沒有時間時為 Timestamps.NONE
+    private String formattedAddedTime; // 第一次顯示時才格式化並保留 (String 不可變，重複計算也無妨)
+    private final double price;
+    private final String imagePath;
 
     public Item(String name, String code, double price) {
         this.name = name;
         this.code = code;
         this.price = price;
-        this.addedTime = LocalDateTime.now();
+        this.addedTime = Timestamps.now();
         this.imagePath = "";
     }
 
     public Item(String name, String code, LocalDateTime addedTime, double price) {
         this.name = name;
         this.code = code;
-        this.addedTime = addedTime;
+        this.addedTime = Timestamps.toEpochSecond(addedTime);
         this.price = price;
         this.imagePath = "";
     }
@@ -35,14 +35,19 @@ public class Item {
         this.name = name;
         this.code = code;
         this.price = price;
-        this.addedTime = LocalDateTime.now();
+        this.addedTime = Timestamps.now();
         this.imagePath = imagePath != null ? imagePath : "";
     }
 
     public Item(String name, String code, LocalDateTime addedTime, double price, String imagePath) {
+        this(name, code, Timestamps.toEpochSecond(addedTime), price, imagePath);
+    }
+
+    // 以 epoch 秒指定加入時間，讀取資料檔時不需要建立 LocalDateTime
+    public Item(String name, String code, long addedEpochSecond, double price, String imagePath) {
         this.name = name;
         this.code = code;
-        this.addedTime = addedTime;
+        this.addedTime = addedEpochSecond;
         this.price = price;
         this.imagePath = imagePath != null ? imagePath : "";
     }
@@ -51,45 +56,35 @@ public class Item {
         return name;
     }
 
-    public void setName(String name) {
-        this.name = name;
-    }
-
     public String getCode() {
         return code;
     }
 
-    public void setCode(String code) {
-        this.code = code;
-    }
-
+    // 每次呼叫都會建立新的 LocalDateTime，大量比較或排序時請用 getAddedEpochSecond
     public LocalDateTime getAddedTime() {
-        return addedTime;
+        return Timestamps.toDateTime(addedTime);
     }
 
-    public void setAddedTime(LocalDateTime addedTime) {
-        this.addedTime = addedTime;
+    public long getAddedEpochSecond() {
+        return addedTime;
     }
 
     public double getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
-        this.price = price;
-    }
-
     public String getImagePath() {
         return imagePath;
     }
 
-    public void setImagePath(String imagePath) {
-        this.imagePath = imagePath != null ? imagePath : "";
-    }
-
+    // 格式為 yyyy-MM-dd HH:mm:ss，結果會保留下來，重繪表格時不必重新格式化
     public String getFormattedAddedTime() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return addedTime.format(formatter);
+        String formatted = formattedAddedTime;
+        if (formatted == null) {
+            formatted = Timestamps.format(getAddedEpochSecond());
+            formattedAddedTime = formatted;
+        }
+        return formatted;
     }
 
     @Override
@@ -0,0 +1,143 @@
+package com.inventory.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 加入時間的格式化與解析
+ * 時間以「當地時間視為 UTC」的 epoch 秒表示 (與 data.bin 相同)，一個 long 就能保存。
+ * yyyy-MM-dd HH:mm:ss 是固定寬度的格式，直接以整數運算換算年月日並逐字寫出，
+ * 不需要 DateTimeFormatter 與 LocalDateTime；年份超出 0001-9999 時才改用 DateTimeFormatter。
+ */
+public final class Timestamps {
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+    public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+    public static final int LENGTH = 19;
+    public static final long NONE = Long.MIN_VALUE; // 沒有時間
+
+    private static final long SECONDS_PER_DAY = 86400;
+    private static final long MIN_FAST_SECOND = LocalDateTime.of(1, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_FAST_SECOND = LocalDateTime.of(9999, 12, 31, 23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+
+    private Timestamps() {
+    }
+
+    public static long now() {
+        return LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static long toEpochSecond(LocalDateTime time) {
+        return time != null ? time.toEpochSecond(ZoneOffset.UTC) : NONE;
+    }
+
+    public static LocalDateTime toDateTime(long epochSecond) {
+        return epochSecond != NONE ? LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC) : null;
+    }
+
+    // 格式化為 yyyy-MM-dd HH:mm:ss；沒有時間時回傳空字串
+    public static String format(long epochSecond) {
+        if (epochSecond == NONE) {
+            return "";
+        }
+        if (epochSecond < MIN_FAST_SECOND || epochSecond > MAX_FAST_SECOND) {
+            return toDateTime(epochSecond).format(FORMATTER);
+        }
+        char[] chars = new char[LENGTH];
+        formatTo(epochSecond, chars);
+        return new String(chars);
+    }
+
+    // 將時間寫入 chars 的前 19 個字元，時間必須介於 0001 年與 9999 年之間
+    public static void formatTo(long epochSecond, char[] chars) {
+        long days = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // 由 1970-01-01 起算的天數換算年月日 (以 3 月為一年的開始，閏日落在年底)
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, day, 2);
+        chars[10] = ' ';
+        writeDigits(chars, 11, secondOfDay / 3600, 2);
+        chars[13] = ':';
+        writeDigits(chars, 14, secondOfDay / 60 % 60, 2);
+        chars[16] = ':';
+        writeDigits(chars, 17, secondOfDay % 60, 2);
+    }
+
+    // 解析 yyyy-MM-dd HH:mm:ss；格式不符時拋出 DateTimeParseException (與 DateTimeFormatter 相同)
+    public static long parse(CharSequence text) {
+        if (text.length() == LENGTH
+                && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == ' '
+                && text.charAt(13) == ':' && text.charAt(16) == ':') {
+            int year = readDigits(text, 0, 4);
+            int month = readDigits(text, 5, 2);
+            int day = readDigits(text, 8, 2);
+            int hour = readDigits(text, 11, 2);
+            int minute = readDigits(text, 14, 2);
+            int second = readDigits(text, 17, 2);
+            if (year >= 1 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month)
+                    && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60) {
+                return daysFromCivil(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+            }
+        }
+        // 不符合固定格式時交給 DateTimeFormatter，取得一致的錯誤訊息
+        return LocalDateTime.parse(text, FORMATTER).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        int yearOfEra = (int) (y - era * 400);
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static void writeDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    // 不是數字時回傳 -1
+    private static int readDigits(CharSequence text, int offset, int width) {
+        int value = 0;
+        for (int i = offset; i < offset + width; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
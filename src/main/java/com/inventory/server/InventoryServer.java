@@ -0,0 +1,337 @@
+package com.inventory.server;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+import com.inventory.controller.ItemManager;
+import com.inventory.controller.SortField;
+import com.inventory.model.Item;
+import com.inventory.utils.JsonHandler;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 不需要視窗的 HTTP API，讓收銀機或掃描器直接存取同一份庫存
+ *
+ * GET    /items/{code}                          依編號查詢
+ * GET    /items?q=關鍵字&offset=0&limit=100       搜尋 (不加 limit 時回傳全部結果)
+ * GET    /items?sort=price&order=desc&offset=0&limit=100  依欄位排序分頁
+ * POST   /items                                 新增，沒有 code 時自動產生編號
+ * PUT    /items/{code}                          修改
+ * DELETE /items/{code}                          刪除
+ * GET    /metrics                               各項操作的統計
+ *
+ * 物品的 JSON 格式與 data.json 相同，但用戶端送來的 imagePath 一律忽略 (新增時沒有圖片，修改時保留原本的圖片)，
+ * 避免以任意路徑引用或刪除圖片目錄以外的檔案。API 沒有身分驗證，預設只接受本機 (loopback) 連線。
+ * 清單邊產生邊以 chunked 方式送出，不先在記憶體組成整份回應；
+ * 連線預設保持 (keep-alive)。每個請求由獨立的執行緒處理，執行環境支援 virtual thread (Java 21 以上)
+ * 時使用 virtual thread，否則使用固定大小的執行緒池。
+ */
+public class InventoryServer {
+    private static final String ITEMS_PATH = "/items";
+    private static final String METRICS_PATH = "/metrics";
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int BACKLOG = 1024; // 等待接受的連線數
+    private static final int FALLBACK_THREADS = 64; // 不支援 virtual thread 時的執行緒數
+
+    static {
+        // JDK 的 HttpServer 預設未關閉 Nagle 演算法，小回應會因延遲確認 (delayed ACK) 多等約 40 毫秒；
+        // 設定值在第一次建立 HttpServer 時讀取
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final ItemManager itemManager;
+    private final Gson gson;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    // 只接受本機連線
+    public InventoryServer(ItemManager itemManager, int port) throws IOException {
+        this(itemManager, InetAddress.getLoopbackAddress(), port);
+    }
+
+    // address 為 0.0.0.0 時接受所有網路介面的連線
+    public InventoryServer(ItemManager itemManager, InetAddress address, int port) throws IOException {
+        this.itemManager = itemManager;
+        this.gson = new JsonHandler(true).getCompactGson();
+        this.server = HttpServer.create(new InetSocketAddress(address, port), BACKLOG);
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(FALLBACK_THREADS);
+        server.setExecutor(executor);
+        server.createContext(ITEMS_PATH, this::handleItems);
+        server.createContext(METRICS_PATH, this::handleMetrics);
+    }
+
+    // Java 21 以上才有 Executors.newVirtualThreadPerTaskExecutor，以反射呼叫以便在 Java 11 編譯
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // 最多等待 delaySeconds 秒讓進行中的請求完成
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // 主機位址與埠號，例如 127.0.0.1:8080
+    public String getAddress() {
+        return server.getAddress().getAddress().getHostAddress() + ":" + getPort();
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        boolean aborted = false;
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String code = path.length() > ITEMS_PATH.length() + 1
+                    ? URLDecoder.decode(path.substring(ITEMS_PATH.length() + 1), StandardCharsets.UTF_8)
+                    : null;
+            String method = exchange.getRequestMethod();
+
+            if (code == null) {
+                if ("GET".equals(method)) {
+                    listItems(exchange);
+                } else if ("POST".equals(method)) {
+                    createItem(exchange);
+                } else {
+                    sendError(exchange, 405, "不支援的方法: " + method);
+                }
+            } else if ("GET".equals(method)) {
+                getItem(exchange, code);
+            } else if ("PUT".equals(method)) {
+                updateItem(exchange, code);
+            } else if ("DELETE".equals(method)) {
+                deleteItem(exchange, code);
+            } else {
+                sendError(exchange, 405, "不支援的方法: " + method);
+            }
+        } catch (ResponseAbortedException e) {
+            // 不正常結束 chunked 回應，交給 HttpServer 直接中斷連線，用戶端才會知道回應不完整
+            aborted = true;
+            System.err.println("傳送回應時發生錯誤: " + e.getMessage());
+            throw e;
+        } catch (IllegalArgumentException | JsonParseException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("處理請求時發生錯誤: " + e.getMessage());
+            sendError(exchange, 500, "伺服器錯誤");
+        } finally {
+            if (!aborted) {
+                exchange.close();
+            }
+        }
+    }
+
+    private void getItem(HttpExchange exchange, String code) throws IOException {
+        Optional<Item> item = itemManager.getItemByCode(code);
+        if (item.isPresent()) {
+            sendJson(exchange, 200, gson.toJson(item.get(), Item.class));
+        } else {
+            sendError(exchange, 404, "物品不存在: " + code);
+        }
+    }
+
+    private void listItems(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int offset = parseInt(query, "offset", 0);
+        String keyword = query.get("q");
+
+        List<Item> page;
+        if (keyword != null) {
+            List<Item> matches = itemManager.searchItems(keyword);
+            int limit = parseInt(query, "limit", Integer.MAX_VALUE);
+            int from = Math.min(offset, matches.size());
+            page = matches.subList(from, (int) Math.min((long) from + limit, matches.size()));
+        } else {
+            SortField field = parseSortField(query.getOrDefault("sort", "code"));
+            boolean ascending = !"desc".equalsIgnoreCase(query.get("order"));
+            page = itemManager.getSortedItems(field, ascending, offset, parseInt(query, "limit", DEFAULT_PAGE_SIZE));
+        }
+        streamItems(exchange, page);
+    }
+
+    private void createItem(HttpExchange exchange) throws IOException {
+        Item request = readItem(exchange);
+        String code = request.getCode() != null ? request.getCode().trim() : "";
+        if (code.isEmpty()) {
+            code = itemManager.leaseCodes(1).next();
+        }
+        // 不使用用戶端送來的 imagePath
+        Item item = new Item(request.getName(), code, request.getAddedEpochSecond(), request.getPrice(), "");
+        if (itemManager.addItem(item)) {
+            exchange.getResponseHeaders().set("Location", ITEMS_PATH + "/" + item.getCode());
+            sendJson(exchange, 201, gson.toJson(item, Item.class));
+        } else {
+            sendError(exchange, 409, "編號已存在: " + item.getCode());
+        }
+    }
+
+    private void updateItem(HttpExchange exchange, String code) throws IOException {
+        Item item = readItem(exchange);
+        if (itemManager.updateItem(code, item.getName(), item.getPrice())) {
+            getItem(exchange, code);
+        } else {
+            sendError(exchange, 404, "物品不存在: " + code);
+        }
+    }
+
+    private void deleteItem(HttpExchange exchange, String code) throws IOException {
+        if (itemManager.deleteItem(code)) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            sendError(exchange, 404, "物品不存在: " + code);
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            sendJson(exchange, 200, gson.toJson(itemManager.getMetrics().getOperations()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // 品名必填，價格必須是非負的有限數值 (與視窗介面的檢查相同)
+    private Item readItem(HttpExchange exchange) throws IOException {
+        Item item;
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            item = gson.fromJson(reader, Item.class);
+        }
+        if (item == null || item.getName() == null || item.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("品名不可為空");
+        }
+        if (Double.isNaN(item.getPrice()) || Double.isInfinite(item.getPrice())) {
+            throw new IllegalArgumentException("價格格式錯誤: " + item.getPrice());
+        }
+        if (item.getPrice() < 0) {
+            throw new IllegalArgumentException("價格不可為負數");
+        }
+        return item;
+    }
+
+    // 長度未知，以 chunked 方式邊寫邊送
+    // 送出 200 之後就不能再改成錯誤回應，寫到一半失敗時拋出 ResponseAbortedException 中斷連線
+    private void streamItems(HttpExchange exchange, List<Item> items) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(200, 0);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+        try {
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            jsonWriter.beginArray();
+            for (Item item : items) {
+                gson.toJson(item, Item.class, jsonWriter);
+            }
+            jsonWriter.endArray();
+            jsonWriter.flush();
+        } catch (IOException | RuntimeException e) {
+            // 不可關閉 writer：關閉會送出 chunked 結尾，用戶端會把不完整的清單當成完整的回應
+            throw new ResponseAbortedException(e);
+        }
+        writer.close();
+    }
+
+    // 回應標頭已送出後發生的錯誤
+    private static class ResponseAbortedException extends IOException {
+        ResponseAbortedException(Throwable cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonObject error = new JsonObject();
+        error.addProperty("error", message);
+        sendJson(exchange, status, gson.toJson(error));
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equalsIndex = pair.indexOf('=');
+            String key = equalsIndex >= 0 ? pair.substring(0, equalsIndex) : pair;
+            String value = equalsIndex >= 0 ? pair.substring(equalsIndex + 1) : "";
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static int parseInt(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException(name + " 不可為負數");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " 必須是整數: " + value);
+        }
+    }
+
+    private static SortField parseSortField(String name) {
+        try {
+            return SortField.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("無法依此欄位排序: " + name);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.inventory.server;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.inventory.metrics.LatencyHistogram;
+
+/**
+ * InventoryServer 的壓力測試工具，回報每秒請求數與延遲分布
+ * 用法: java -cp inventory.jar com.inventory.server.LoadTestClient [網址] [並行數] [秒數]
+ * 預設為 http://localhost:8080、32 個並行連線、30 秒。
+ *
+ * 請求的比例模擬收銀機與掃描器：70% 依編號查詢、20% 搜尋、10% 分頁列出。
+ * 查詢用的編號在開始前先從伺服器取得。
+ */
+public class LoadTestClient {
+    private static final String[] KEYWORDS = {"滑鼠", "鍵盤", "耳機", "無線", "ITEM1", "a"};
+    private static final int CODE_SAMPLE = 1000; // 開始前取得多少個編號
+    private static final int WARMUP_SECONDS = 3;
+
+    private enum Kind { LOOKUP, SEARCH, PAGE }
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Kind.values().length];
+    private final LongAdder errors = new LongAdder();
+    private List<String> codes = new ArrayList<>();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    public LoadTestClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        new LoadTestClient(url).run(concurrency, seconds);
+    }
+
+    public void run(int concurrency, int seconds) throws Exception {
+        loadCodes();
+        if (codes.isEmpty()) {
+            System.err.println("伺服器上沒有物品，只測試搜尋與分頁");
+        }
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(this::work, "load-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+
+        Thread.sleep(WARMUP_SECONDS * 1000L);
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        report(concurrency, elapsed);
+    }
+
+    private void loadCodes() throws Exception {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/items?limit=" + CODE_SAMPLE)).GET().build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("無法取得物品清單: HTTP " + response.statusCode());
+        }
+        JsonArray items = JsonParser.parseString(response.body()).getAsJsonArray();
+        List<String> loaded = new ArrayList<>(items.size());
+        for (JsonElement item : items) {
+            loaded.add(item.getAsJsonObject().get("code").getAsString());
+        }
+        codes = loaded;
+    }
+
+    private void work() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            int roll = random.nextInt(100);
+            Kind kind = roll < 70 && !codes.isEmpty() ? Kind.LOOKUP : roll < 90 ? Kind.SEARCH : Kind.PAGE;
+            String path;
+            switch (kind) {
+                case LOOKUP:
+                    path = "/items/" + codes.get(random.nextInt(codes.size()));
+                    break;
+                case SEARCH:
+                    path = "/items?limit=50&q=" + URLEncoder.encode(KEYWORDS[random.nextInt(KEYWORDS.length)],
+                            StandardCharsets.UTF_8);
+                    break;
+                default:
+                    path = "/items?sort=price&offset=" + random.nextInt(1000) + "&limit=50";
+                    break;
+            }
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(
+                        HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200 && recording) {
+                    errors.increment();
+                }
+            } catch (Exception e) {
+                if (recording) {
+                    errors.increment();
+                }
+                if (e instanceof InterruptedException) {
+                    return;
+                }
+            }
+            if (recording) {
+                latencies[kind.ordinal()].record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void report(int concurrency, long elapsedNanos) {
+        long total = 0;
+        for (LatencyHistogram latency : latencies) {
+            total += latency.getCount();
+        }
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("並行數 %d，%.1f 秒，共 %d 個請求，錯誤 %d 個，每秒 %.0f 個請求%n",
+                concurrency, seconds, total, errors.sum(), total / seconds);
+        System.out.printf("%-8s %10s %10s %10s %10s %10s%n", "種類", "次數", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Kind kind : Kind.values()) {
+            LatencyHistogram latency = latencies[kind.ordinal()];
+            System.out.printf("%-8s %10d %10.2f %10.2f %10.2f %10.2f%n", kind, latency.getCount(),
+                    latency.getPercentileNanos(0.50) / 1e6,
+                    latency.getPercentileNanos(0.99) / 1e6,
+                    latency.getPercentileNanos(0.999) / 1e6,
+                    latency.getMaxNanos() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.inventory.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JLabel;
+import javax.swing.SwingWorker;
+
+import com.inventory.controller.ProgressListener;
+
+/**
+ * 背景作業
+ * 將耗時的操作移到背景執行緒，進度顯示在狀態列上，EDT 不會被卡住。
+ * 唯讀的作業 (例如更新表格、匯出) 以 submit 送出，每一種同時只保留最新的一個：
+ * 送出新作業時會取消同種類的舊作業，舊作業即使已經算完，結果也會被丟棄。
+ * 修改資料的作業 (新增、修改) 以 submitWrite 送出，在專用的執行緒上依送出順序逐一執行，
+ * 不會被較新的作業或「取消」按鈕取消，使用者確認過的寫入一定會執行。
+ * 取消採合作方式 (不中斷執行緒)，避免中斷正在寫入日誌的 FileChannel。
+ * 所有方法都必須在 EDT 上呼叫。
+ */
+public class BackgroundTasks {
+    private final Map<String, Task<?>> current = new HashMap<>();
+    private final Set<Task<?>> writes = new LinkedHashSet<>(); // 尚未完成的寫入作業
+    private final ExecutorService writeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ui-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final JLabel statusLabel;
+    private final Runnable runningChanged; // 有無作業執行中改變時呼叫
+
+    /**
+     * 單一背景作業
+     * compute 在背景執行緒執行，其餘方法都在 EDT 上呼叫。
+     */
+    public abstract static class Task<T> extends SwingWorker<T, Void> implements ProgressListener {
+        private final String kind;
+        private final String description; // 為 null 時不在狀態列顯示
+        private BackgroundTasks owner;
+
+        protected Task(String kind, String description) {
+            this.kind = kind;
+            this.description = description;
+        }
+
+        // 不顯示在狀態列的短作業 (例如載入預覽圖)
+        protected Task(String kind) {
+            this(kind, null);
+        }
+
+        protected abstract T compute() throws Exception;
+
+        protected abstract void succeeded(T result);
+
+        protected void failed(Throwable error) {
+            if (description != null) {
+                owner.statusLabel.setText(description + "失敗: " + error.getMessage());
+            }
+            System.err.println("背景作業發生錯誤: " + error.getMessage());
+        }
+
+        protected void cancelled() {
+            if (description != null) {
+                owner.statusLabel.setText(description + "已取消");
+            }
+        }
+
+        @Override
+        protected final T doInBackground() throws Exception {
+            return compute();
+        }
+
+        // 由 compute 呼叫，轉成 SwingWorker 的進度 (0 - 100)
+        @Override
+        public void progress(long done, long total) {
+            if (total > 0) {
+                setProgress((int) Math.min(100, done * 100 / total));
+            }
+        }
+
+        @Override
+        protected final void done() {
+            if (!owner.finished(this)) {
+                return; // 已被較新的同種作業取代
+            }
+            if (isCancelled()) {
+                cancelled();
+                return;
+            }
+            try {
+                succeeded(get());
+            } catch (ExecutionException e) {
+                failed(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public BackgroundTasks(JLabel statusLabel, Runnable runningChanged) {
+        this.statusLabel = statusLabel;
+        this.runningChanged = runningChanged;
+    }
+
+    // 唯讀作業：取消同種類的舊作業
+    public void submit(Task<?> task) {
+        Task<?> previous = current.put(task.kind, task);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        start(task);
+        task.execute();
+    }
+
+    // 寫入作業：排在先前送出的寫入之後執行，不會被取消
+    public void submitWrite(Task<?> task) {
+        writes.add(task);
+        start(task);
+        writeExecutor.execute(task);
+    }
+
+    private void start(Task<?> task) {
+        task.owner = this;
+        task.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName()) && isActive(task) && task.description != null) {
+                statusLabel.setText(task.description + "中... " + event.getNewValue() + "%");
+            }
+        });
+        if (task.description != null) {
+            statusLabel.setText(task.description + "中...");
+        }
+        runningChanged.run();
+    }
+
+    private boolean isActive(Task<?> task) {
+        return writes.contains(task) || current.get(task.kind) == task;
+    }
+
+    // 取消指定種類的作業
+    public void cancel(String kind) {
+        Task<?> task = current.get(kind);
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    // 取消所有執行中的唯讀作業 (寫入作業不受影響)
+    public void cancelAll() {
+        for (Task<?> task : new ArrayList<>(current.values())) {
+            task.cancel(false);
+        }
+    }
+
+    // 是否有可以取消的作業執行中
+    public boolean isRunning() {
+        return !current.isEmpty();
+    }
+
+    // 等待已送出的寫入作業完成 (關閉視窗前呼叫)，逾時回傳 false；之後不能再送出寫入作業
+    public boolean awaitWrites(long timeout, TimeUnit unit) throws InterruptedException {
+        writeExecutor.shutdown();
+        return writeExecutor.awaitTermination(timeout, unit);
+    }
+
+    // 作業結束時呼叫，回傳它是否仍是同種類中最新的作業 (寫入作業一律回傳 true)
+    private boolean finished(Task<?> task) {
+        if (writes.remove(task)) {
+            runningChanged.run();
+            return true;
+        }
+        if (current.get(task.kind) != task) {
+            return false;
+        }
+        current.remove(task.kind);
+        runningChanged.run();
+        return true;
+    }
+}
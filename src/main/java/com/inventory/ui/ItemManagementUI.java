@@ -13,19 +13,23 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.Image;
 import java.awt.Insets;
 import java.awt.RenderingHints;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
@@ -43,6 +47,8 @@ import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.border.AbstractBorder;
 import javax.swing.border.Border;
@@ -52,17 +58,23 @@ import javax.swing.border.MatteBorder;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumnModel;
 import javax.swing.table.JTableHeader;
 
+import com.inventory.controller.ImageImportResult;
+import com.inventory.controller.ItemChangeListener;
+import com.inventory.controller.ItemImportResult;
 import com.inventory.controller.ItemManager;
+import com.inventory.controller.SearchResult;
+import com.inventory.controller.SortField;
+import com.inventory.metrics.MetricsReporter;
+import com.inventory.utils.Thumbnails;
 import com.inventory.model.Item;
 
 public class ItemManagementUI extends JFrame {
     private JPanel contentPane;
     private JTable itemTable;
-    private DefaultTableModel tableModel;
+    private ItemTableModel tableModel;
     private JTextField txtName;
     private JTextField txtPrice;
     private JTextField txtSearch;
@@ -72,11 +84,17 @@ public class ItemManagementUI extends JFrame {
     private JButton btnSearch;
     private JButton btnSelectImage;
     private JButton btnExport;
+    private JButton btnImportImages;
+    private JButton btnImportItems;
+    private JButton btnCancel;
     private JLabel lblStatus;
     private JLabel lblImagePreview;
     private JScrollPane imageScrollPane;
 
     private final ItemManager itemManager;
+    private BackgroundTasks tasks;
+    private Timer searchTimer; // 輸入停止一段時間後才搜索
+    private SearchResult lastSearch; // 上一次的搜索結果，繼續輸入時從這裡篩選
     private boolean isEditing = false;
     private String currentCode = "";
     private String selectedImagePath = "";
@@ -90,10 +108,46 @@ public class ItemManagementUI extends JFrame {
     private final String[] columns = {"品名", "編號", "加入時間", "價格", "圖片"};
     private final boolean[] sortAscending = {true, true, true, true, true}; // 記錄每欄的排序方向
 
+    // 背景作業種類，同種類只保留最新的作業
+    private static final String TABLE_TASK = "table"; // 搜索與排序，結果都會取代表格內容
+    private static final String EXPORT_TASK = "export";
+    private static final String SAVE_TASK = "save"; // 新增與修改 (含複製圖片)，依序執行且不會被取消
+    private static final String PREVIEW_TASK = "preview";
+    private static final String IMPORT_TASK = "import";
+    private static final String ITEM_IMPORT_TASK = "importItems";
+    private static final int WRITE_SHUTDOWN_SECONDS = 30; // 關閉視窗時最多等待寫入作業的秒數
+    private static final int SEARCH_DELAY_MILLIS = 150; // 預設的搜索延遲
+    private static final long THUMBNAIL_CACHE_BYTES = 32L * 1024 * 1024; // 約可保留 300 張預覽縮圖
+
+    private final ThumbnailCache thumbnailCache = new ThumbnailCache(THUMBNAIL_CACHE_BYTES);
+    private MetricsReporter metricsReporter; // 沒有設定輸出間隔時為 null
+
     public ItemManagementUI() {
         itemManager = new ItemManager();
+        itemManager.getMetrics().setThumbnailGauges(thumbnailCache::getHits, thumbnailCache::getMisses);
+        metricsReporter = itemManager.getMetrics().registerDefault();
         initializeUI();
         loadAllItems();
+        registerItemChangeListener();
+        
+        // 關閉視窗前寫出背景中尚未寫入的資料
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // 先等已送出的新增與修改完成，再寫出資料
+                try {
+                    if (!tasks.awaitWrites(WRITE_SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                        System.err.println("關閉時仍有未完成的寫入作業");
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                itemManager.close();
+                if (metricsReporter != null) {
+                    metricsReporter.close();
+                }
+            }
+        });
     }
 
     private void initializeUI() {
@@ -293,6 +347,20 @@ public class ItemManagementUI extends JFrame {
         searchExportPanel.add(btnExport);
         searchExportPanel.add(Box.createRigidArea(new Dimension(15, 0)));
         
+        // 批次匯入圖片按鈕
+        btnImportImages = new JButton("匯入圖片");
+        styleButton(btnImportImages, new Color(0, 150, 136), textHighlight);
+        btnImportImages.setPreferredSize(new Dimension(100, 35));
+        searchExportPanel.add(btnImportImages);
+        searchExportPanel.add(Box.createRigidArea(new Dimension(15, 0)));
+        
+        // 從 CSV / NDJSON 檔批次匯入物品按鈕
+        btnImportItems = new JButton("匯入資料");
+        styleButton(btnImportItems, new Color(0, 150, 136), textHighlight);
+        btnImportItems.setPreferredSize(new Dimension(100, 35));
+        searchExportPanel.add(btnImportItems);
+        searchExportPanel.add(Box.createRigidArea(new Dimension(15, 0)));
+        
         JLabel lblSearch = new JLabel("搜索:");
         lblSearch.setForeground(textNormal);
         lblSearch.setFont(new Font("微軟正黑體", Font.PLAIN, 14));
@@ -343,6 +411,13 @@ public class ItemManagementUI extends JFrame {
         buttonPanel.add(Box.createHorizontalStrut(20));
         buttonPanel.add(lblStatus);
         
+        // 取消背景作業按鈕，只有作業執行中時啟用
+        btnCancel = new JButton("取消");
+        styleButton(btnCancel, new Color(96, 125, 139), textHighlight);
+        btnCancel.setEnabled(false);
+        buttonPanel.add(btnCancel);
+        tasks = new BackgroundTasks(lblStatus, () -> btnCancel.setEnabled(tasks.isRunning()));
+        
         // 提示標籤
         JLabel lblHint = new JLabel("提示：點擊空白處可清除表單，修改按鈕會在資料變更時啟用");
         lblHint.setForeground(new Color(158, 158, 158));
@@ -362,12 +437,7 @@ public class ItemManagementUI extends JFrame {
         contentPane.add(topPanel, BorderLayout.NORTH);
         
         // 創建表格
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // 設置表格不可編輯
-            }
-        };
+        tableModel = new ItemTableModel(columns);
         
         itemTable = new JTable(tableModel);
         itemTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -415,6 +485,9 @@ public class ItemManagementUI extends JFrame {
         // 添加輸入變更監聽器
         addInputChangeListeners();
         
+        // 邊輸入邊搜索
+        addLiveSearch();
+        
         // 註冊事件監聽器
         registerEventHandlers();
     }
@@ -442,6 +515,57 @@ public class ItemManagementUI extends JFrame {
         txtPrice.getDocument().addDocumentListener(changeListener);
     }
 
+    // 搜索框內容改變時重新計時，停止輸入後才送出搜索
+    private void addLiveSearch() {
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> runSearch());
+        searchTimer.setRepeats(false);
+        
+        txtSearch.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+    }
+
+    // 設定停止輸入多久後開始搜索
+    public void setSearchDelay(int millis) {
+        searchTimer.setInitialDelay(millis);
+    }
+
+    // 在背景搜索，新的搜索會取消尚未完成的舊搜索
+    private void runSearch() {
+        searchTimer.stop();
+        String keyword = txtSearch.getText().trim();
+        SearchResult previous = lastSearch;
+        tasks.submit(new BackgroundTasks.Task<SearchResult>(TABLE_TASK, "搜索") {
+            @Override
+            protected SearchResult compute() {
+                return itemManager.search(keyword, previous, this);
+            }
+            
+            @Override
+            protected void succeeded(SearchResult result) {
+                if (result == null) {
+                    return; // 已取消
+                }
+                lastSearch = result;
+                updateTable(new ArrayList<>(result.getItems()), keywordFilter(keyword));
+                lblStatus.setText("找到 " + result.size() + " 個物品");
+            }
+        });
+    }
+
     // 檢查是否有變更
     private void checkForChanges() {
         if (!isEditing) {
@@ -489,50 +613,34 @@ public class ItemManagementUI extends JFrame {
         });
     }
 
-    // 依據欄位排序表格
+    // 表格欄位對應的排序索引
+    private static final SortField[] SORT_FIELDS = {
+        SortField.NAME, SortField.CODE, SortField.ADDED_TIME, SortField.PRICE, SortField.HAS_IMAGE
+    };
+
+    // 依據欄位排序表格，直接走訪 ItemManager 維護的排序索引
     private void sortTableByColumn(int column) {
-        List<Item> items = itemManager.getAllItems();
-        
         // 切換排序方向
         sortAscending[column] = !sortAscending[column];
         boolean ascending = sortAscending[column];
         
-        // 根據欄位進行排序
-        switch (column) {
-            case 0: // 品名
-                items.sort(ascending ? 
-                    Comparator.comparing(Item::getName) : 
-                    Comparator.comparing(Item::getName).reversed());
-                break;
-            case 1: // 編號
-                items.sort(ascending ? 
-                    Comparator.comparing(Item::getCode) : 
-                    Comparator.comparing(Item::getCode).reversed());
-                break;
-            case 2: // 加入時間
-                items.sort(ascending ? 
-                    Comparator.comparing(Item::getAddedTime) : 
-                    Comparator.comparing(Item::getAddedTime).reversed());
-                break;
-            case 3: // 價格
-                items.sort(ascending ? 
-                    Comparator.comparing(Item::getPrice) : 
-                    Comparator.comparing(Item::getPrice).reversed());
-                break;
-            case 4: // 圖片
-                items.sort(ascending ? 
-                    Comparator.comparing(item -> item.getImagePath().isEmpty() ? "無圖片" : "有圖片") : 
-                    Comparator.comparing((Item item) -> item.getImagePath().isEmpty() ? "無圖片" : "有圖片").reversed());
-                break;
-        }
-        
-        updateTable(items);
-        
-        // 更新狀態提示
-        String direction = ascending ? "正向" : "反向";
-        lblStatus.setText(columns[column] + " " + direction + "排序");
+        tasks.submit(new BackgroundTasks.Task<List<Item>>(TABLE_TASK, "排序") {
+            @Override
+            protected List<Item> compute() {
+                return itemManager.getSortedItems(SORT_FIELDS[column], ascending);
+            }
+            
+            @Override
+            protected void succeeded(List<Item> items) {
+                updateTable(items);
+                
+                // 更新狀態提示
+                String direction = ascending ? "正向" : "反向";
+                lblStatus.setText(columns[column] + " " + direction + "排序");
+            }
+        });
     }
-
+    
     // 添加點擊空白處清除表單的監聽器
     private void addClearFormListeners() {
         MouseAdapter clearFormListener = new MouseAdapter() {
@@ -588,23 +696,116 @@ public class ItemManagementUI extends JFrame {
                     filePath += ".xlsx";
                 }
                 
-                boolean success = itemManager.exportToExcel(filePath);
-                if (success) {
-                    lblStatus.setText("Excel檔案匯出成功: " + selectedFile.getName());
-                    JOptionPane.showMessageDialog(this, 
-                        "Excel檔案已成功匯出至:\n" + filePath, 
-                        "匯出成功", 
-                        JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    lblStatus.setText("Excel檔案匯出失敗");
-                    JOptionPane.showMessageDialog(this, 
-                        "匯出Excel檔案時發生錯誤，請檢查檔案路徑是否正確", 
-                        "匯出失敗", 
-                        JOptionPane.ERROR_MESSAGE);
-                }
+                String exportPath = filePath;
+                tasks.submit(new BackgroundTasks.Task<Boolean>(EXPORT_TASK, "匯出Excel") {
+                    @Override
+                    protected Boolean compute() {
+                        return itemManager.exportToExcel(exportPath, this);
+                    }
+                    
+                    @Override
+                    protected void succeeded(Boolean success) {
+                        if (success) {
+                            lblStatus.setText("Excel檔案匯出成功: " + selectedFile.getName());
+                            JOptionPane.showMessageDialog(ItemManagementUI.this, 
+                                "Excel檔案已成功匯出至:\n" + exportPath, 
+                                "匯出成功", 
+                                JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            lblStatus.setText("Excel檔案匯出失敗");
+                            JOptionPane.showMessageDialog(ItemManagementUI.this, 
+                                "匯出Excel檔案時發生錯誤，請檢查檔案路徑是否正確", 
+                                "匯出失敗", 
+                                JOptionPane.ERROR_MESSAGE);
+                        }
+                    }
+                });
+            }
+        });
+        
+        // 批次匯入圖片按鈕事件：檔名與物品編號相同的圖片會設為該物品的圖片
+        btnImportImages.addActionListener(e -> {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setDialogTitle("選擇圖片目錄 (檔名需與物品編號相同)");
+            fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            
+            if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                File directory = fileChooser.getSelectedFile();
+                int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+                tasks.submit(new BackgroundTasks.Task<ImageImportResult>(IMPORT_TASK, "匯入圖片") {
+                    @Override
+                    protected ImageImportResult compute() {
+                        return itemManager.importImages(directory.toPath(), threads, this);
+                    }
+                    
+                    @Override
+                    protected void succeeded(ImageImportResult result) {
+                        lblStatus.setText(String.format("已匯入 %d 張圖片 (%.1f 張/秒)",
+                            result.getAppliedCount(), result.getFilesPerSecond()));
+                        StringBuilder message = new StringBuilder();
+                        message.append(String.format("找到 %d 張圖片，成功套用 %d 張，%d 張找不到對應的物品%n",
+                            result.getScannedCount(), result.getAppliedCount(), result.getUnmatched().size()));
+                        message.append(String.format("耗時 %.1f 秒，%.1f 張/秒，%.1f MB/秒%n",
+                            result.getElapsedMillis() / 1000.0, result.getFilesPerSecond(),
+                            result.getMegabytesPerSecond()));
+                        List<ImageImportResult.Failure> failures = result.getFailures();
+                        if (!failures.isEmpty()) {
+                            message.append("\n失敗的檔案：\n");
+                            for (int i = 0; i < Math.min(failures.size(), 10); i++) {
+                                message.append(failures.get(i)).append('\n');
+                            }
+                            if (failures.size() > 10) {
+                                message.append("... 共 ").append(failures.size()).append(" 個\n");
+                            }
+                        }
+                        JOptionPane.showMessageDialog(ItemManagementUI.this, message.toString(), "匯入圖片",
+                            failures.isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+                    }
+                });
+            }
+        });
+        
+        // 批次匯入物品按鈕事件：被拒絕的資料寫入錯誤紀錄檔，不會中斷匯入
+        btnImportItems.addActionListener(e -> {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setDialogTitle("選擇要匯入的資料檔");
+            fileChooser.setFileFilter(new FileNameExtensionFilter("CSV / NDJSON 檔案", "csv", "ndjson", "jsonl"));
+            
+            if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                File file = fileChooser.getSelectedFile();
+                tasks.submit(new BackgroundTasks.Task<ItemImportResult>(ITEM_IMPORT_TASK, "匯入資料") {
+                    @Override
+                    protected ItemImportResult compute() {
+                        return itemManager.importItems(file.toPath(), this);
+                    }
+                    
+                    @Override
+                    protected void succeeded(ItemImportResult result) {
+                        lblStatus.setText(String.format("已匯入 %d 筆資料 (%.0f 筆/秒)",
+                            result.getImportedCount(), result.getRowsPerSecond()));
+                        StringBuilder message = new StringBuilder();
+                        message.append(String.format("讀取 %d 筆，成功匯入 %d 筆，拒絕 %d 筆%n",
+                            result.getRowCount(), result.getImportedCount(), result.getRejectedCount()));
+                        message.append(String.format("耗時 %.1f 秒，%.0f 筆/秒，%.1f MB/秒%n",
+                            result.getElapsedMillis() / 1000.0, result.getRowsPerSecond(),
+                            result.getMegabytesPerSecond()));
+                        if (result.getRejectFile() != null) {
+                            message.append("\n被拒絕的資料及原因已寫入:\n").append(result.getRejectFile()).append('\n');
+                        }
+                        if (result.getError() != null) {
+                            message.append("\n讀取檔案時發生錯誤: ").append(result.getError()).append('\n');
+                        }
+                        boolean clean = result.getRejectFile() == null && result.getError() == null;
+                        JOptionPane.showMessageDialog(ItemManagementUI.this, message.toString(), "匯入資料",
+                            clean ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+                    }
+                });
             }
         });
         
+        // 取消按鈕事件
+        btnCancel.addActionListener(e -> tasks.cancelAll());
+        
         // 圖片選擇按鈕事件
         btnSelectImage.addActionListener(e -> {
             JFileChooser fileChooser = new JFileChooser();
@@ -643,28 +844,38 @@ public class ItemManagementUI extends JFrame {
                 }
                 
                 double price = Double.parseDouble(priceText);
-                
-                // 處理圖片複製
-                String imagePath = "";
-                if (!selectedImagePath.isEmpty()) {
-                    try {
-                        imagePath = itemManager.copyImageToDataDir(selectedImagePath);
-                    } catch (IOException ex) {
-                        lblStatus.setText("圖片複製失敗: " + ex.getMessage());
-                        return;
-                    }
+                if (Double.isNaN(price) || Double.isInfinite(price)) {
+                    // parseDouble 接受 NaN 與 Infinity，這兩種價格無法存檔
+                    lblStatus.setText("價格必須是數字");
+                    return;
                 }
+                String sourceImagePath = selectedImagePath;
                 
-                // 使用自動產生編號的方法新增物品
-                boolean success = itemManager.addItem(name, price, imagePath);
-                
-                if (success) {
-                    lblStatus.setText("物品新增成功，編號自動產生");
-                    clearFormAndResetState();
-                    loadAllItems();
-                } else {
-                    lblStatus.setText("新增失敗");
-                }
+                tasks.submitWrite(new BackgroundTasks.Task<Boolean>(SAVE_TASK, "新增物品") {
+                    @Override
+                    protected Boolean compute() throws IOException {
+                        // 處理圖片複製
+                        String imagePath = itemManager.copyImageToDataDir(sourceImagePath);
+                        
+                        // 使用自動產生編號的方法新增物品
+                        return itemManager.addItem(name, price, imagePath);
+                    }
+                    
+                    @Override
+                    protected void succeeded(Boolean success) {
+                        if (success) {
+                            lblStatus.setText("物品新增成功，編號自動產生");
+                            clearFormAndResetState();
+                        } else {
+                            lblStatus.setText("新增失敗");
+                        }
+                    }
+                    
+                    @Override
+                    protected void failed(Throwable error) {
+                        lblStatus.setText("圖片複製失敗: " + error.getMessage());
+                    }
+                });
             } catch (NumberFormatException ex) {
                 lblStatus.setText("價格必須是數字");
             }
@@ -683,35 +894,49 @@ public class ItemManagementUI extends JFrame {
                 }
                 
                 double price = Double.parseDouble(priceText);
+                if (Double.isNaN(price) || Double.isInfinite(price)) {
+                    // parseDouble 接受 NaN 與 Infinity，這兩種價格無法存檔
+                    lblStatus.setText("價格必須是數字");
+                    return;
+                }
+                String code = currentCode;
+                String sourceImagePath = selectedImagePath;
                 
-                // 處理圖片複製
-                String imagePath = "";
-                if (!selectedImagePath.isEmpty()) {
-                    try {
-                        imagePath = itemManager.copyImageToDataDir(selectedImagePath);
-                    } catch (IOException ex) {
-                        lblStatus.setText("圖片複製失敗: " + ex.getMessage());
-                        return;
+                tasks.submitWrite(new BackgroundTasks.Task<Boolean>(SAVE_TASK, "修改物品") {
+                    @Override
+                    protected Boolean compute() throws IOException {
+                        // 處理圖片複製
+                        String imagePath = "";
+                        if (!sourceImagePath.isEmpty()) {
+                            imagePath = itemManager.copyImageToDataDir(sourceImagePath);
+                        } else {
+                            // 如果沒有選擇新圖片，保留原有圖片
+                            Optional<Item> currentItem = itemManager.getItemByCode(code);
+                            if (currentItem.isPresent()) {
+                                imagePath = currentItem.get().getImagePath();
+                            }
+                        }
+                        
+                        // 創建更新的物品
+                        Item updatedItem = new Item(name, code, price, imagePath);
+                        return itemManager.updateItem(code, updatedItem);
                     }
-                } else {
-                    // 如果沒有選擇新圖片，保留原有圖片
-                    Optional<Item> currentItem = itemManager.getItemByCode(currentCode);
-                    if (currentItem.isPresent()) {
-                        imagePath = currentItem.get().getImagePath();
+                    
+                    @Override
+                    protected void succeeded(Boolean success) {
+                        if (success) {
+                            lblStatus.setText("物品更新成功");
+                            clearFormAndResetState();
+                        } else {
+                            lblStatus.setText("更新失敗，物品不存在");
+                        }
                     }
-                }
-                
-                // 創建更新的物品
-                Item updatedItem = new Item(name, currentCode, price, imagePath);
-                boolean success = itemManager.updateItem(currentCode, updatedItem);
-                
-                if (success) {
-                    lblStatus.setText("物品更新成功");
-                    clearFormAndResetState();
-                    loadAllItems();
-                } else {
-                    lblStatus.setText("更新失敗，物品不存在");
-                }
+                    
+                    @Override
+                    protected void failed(Throwable error) {
+                        lblStatus.setText("圖片複製失敗: " + error.getMessage());
+                    }
+                });
             } catch (NumberFormatException ex) {
                 lblStatus.setText("價格必須是數字");
             }
@@ -732,7 +957,6 @@ public class ItemManagementUI extends JFrame {
                 if (success) {
                     lblStatus.setText("物品刪除成功");
                     clearFormAndResetState();
-                    loadAllItems();
                 } else {
                     lblStatus.setText("刪除失敗，物品不存在");
                 }
@@ -740,12 +964,7 @@ public class ItemManagementUI extends JFrame {
         });
         
         // 搜索按鈕事件
-        btnSearch.addActionListener(e -> {
-            String keyword = txtSearch.getText().trim();
-            List<Item> searchResults = itemManager.searchItems(keyword);
-            updateTable(searchResults);
-            lblStatus.setText("找到 " + searchResults.size() + " 個物品");
-        });
+        btnSearch.addActionListener(e -> runSearch());
         
         // 表格點擊事件
         itemTable.addMouseListener(new MouseAdapter() {
@@ -753,7 +972,7 @@ public class ItemManagementUI extends JFrame {
             public void mouseClicked(MouseEvent e) {
                 int selectedRow = itemTable.getSelectedRow();
                 if (selectedRow >= 0) {
-                    String code = (String) tableModel.getValueAt(selectedRow, 1);
+                    String code = tableModel.getItemAt(selectedRow).getCode();
                     Optional<Item> itemOpt = itemManager.getItemByCode(code);
                     
                     if (itemOpt.isPresent()) {
@@ -770,8 +989,7 @@ public class ItemManagementUI extends JFrame {
                         
                         // 顯示圖片預覽
                         if (item.getImagePath() != null && !item.getImagePath().trim().isEmpty()) {
-                            String imagePath = "data" + File.separator + item.getImagePath();
-                            displayImagePreview(imagePath);
+                            displayItemImagePreview(item.getImagePath());
                             selectedImagePath = ""; // 清空選擇的新圖片路徑
                             originalImagePath = ""; // 保留原有圖片路徑
                         } else {
@@ -792,75 +1010,126 @@ public class ItemManagementUI extends JFrame {
         });
     }
 
+    // 預覽尚未匯入的圖片，在背景解碼並縮小
     private void displayImagePreview(String imagePath) {
-        try {
-            File imageFile = new File(imagePath);
-            if (imageFile.exists()) {
-                BufferedImage originalImage = ImageIO.read(imageFile);
-                
-                // 縮放圖片以適應預覽區域
-                int maxWidth = 190;
-                int maxHeight = 140;
-                Image scaledImage = scaleImage(originalImage, maxWidth, maxHeight);
-                
-                ImageIcon imageIcon = new ImageIcon(scaledImage);
-                lblImagePreview.setIcon(imageIcon);
-                lblImagePreview.setText("");
-            } else {
-                lblImagePreview.setIcon(null);
-                lblImagePreview.setText("圖片檔案不存在");
-            }
-        } catch (IOException e) {
+        File imageFile = new File(imagePath);
+        if (!imageFile.exists()) {
+            tasks.cancel(PREVIEW_TASK);
             lblImagePreview.setIcon(null);
-            lblImagePreview.setText("無法載入圖片");
-            System.err.println("載入圖片時發生錯誤: " + e.getMessage());
+            lblImagePreview.setText("圖片檔案不存在");
+            return;
+        }
+        tasks.submit(new BackgroundTasks.Task<ImageIcon>(PREVIEW_TASK) {
+            @Override
+            protected ImageIcon compute() throws IOException {
+                BufferedImage image = Thumbnails.read(imageFile.toPath(), Thumbnails.WIDTH, Thumbnails.HEIGHT);
+                return image != null ? new ImageIcon(image) : null;
+            }
+            
+            @Override
+            protected void succeeded(ImageIcon icon) {
+                showPreviewIcon(icon);
+            }
+            
+            @Override
+            protected void failed(Throwable error) {
+                showPreviewIcon(null);
+                System.err.println("載入圖片時發生錯誤: " + error.getMessage());
+            }
+        });
+    }
+
+    // 預覽物品的圖片，優先使用快取，否則在背景讀取匯入時產生的縮圖
+    private void displayItemImagePreview(String imagePath) {
+        ImageIcon cached = thumbnailCache.get(imagePath);
+        if (cached != null) {
+            tasks.cancel(PREVIEW_TASK);
+            showPreviewIcon(cached);
+            return;
         }
+        tasks.submit(new BackgroundTasks.Task<ImageIcon>(PREVIEW_TASK) {
+            @Override
+            protected ImageIcon compute() throws IOException {
+                File thumbnail = itemManager.getThumbnailFile(imagePath);
+                BufferedImage image = thumbnail != null ? ImageIO.read(thumbnail) : null;
+                return image != null ? new ImageIcon(image) : null;
+            }
+            
+            @Override
+            protected void succeeded(ImageIcon icon) {
+                if (icon != null) {
+                    thumbnailCache.put(imagePath, icon);
+                }
+                showPreviewIcon(icon);
+            }
+            
+            @Override
+            protected void failed(Throwable error) {
+                showPreviewIcon(null);
+                System.err.println("載入圖片時發生錯誤: " + error.getMessage());
+            }
+        });
+    }
+
+    private void showPreviewIcon(ImageIcon icon) {
+        lblImagePreview.setIcon(icon);
+        lblImagePreview.setText(icon != null ? "" : "無法載入圖片");
     }
 
     private void clearImagePreview() {
+        tasks.cancel(PREVIEW_TASK);
         lblImagePreview.setIcon(null);
         lblImagePreview.setText("尚未選擇圖片");
         selectedImagePath = "";
     }
 
-    private Image scaleImage(BufferedImage originalImage, int maxWidth, int maxHeight) {
-        int originalWidth = originalImage.getWidth();
-        int originalHeight = originalImage.getHeight();
-        
-        // 計算縮放比例
-        double scaleWidth = (double) maxWidth / originalWidth;
-        double scaleHeight = (double) maxHeight / originalHeight;
-        double scale = Math.min(scaleWidth, scaleHeight);
-        
-        int scaledWidth = (int) (originalWidth * scale);
-        int scaledHeight = (int) (originalHeight * scale);
-        
-        return originalImage.getScaledInstance(scaledWidth, scaledHeight, Image.SCALE_SMOOTH);
-    }
-
     private void loadAllItems() {
         List<Item> items = itemManager.getAllItems();
         updateTable(items);
     }
 
     private void updateTable(List<Item> items) {
-        // 清空表格
-        tableModel.setRowCount(0);
-        
-        // 添加物品到表格
-        for (Item item : items) {
-            String imageStatus = (item.getImagePath() != null && !item.getImagePath().trim().isEmpty()) 
-                ? "有圖片" : "無圖片";
-            
-            Object[] rowData = {
-                item.getName(),
-                item.getCode(),
-                item.getFormattedAddedTime(),
-                String.format("%.2f", item.getPrice()),
-                imageStatus
-            };
-            tableModel.addRow(rowData);
+        updateTable(items, null);
+    }
+
+    // 表格直接使用傳入的清單，儲存格在顯示時才格式化
+    private void updateTable(List<Item> items, Predicate<Item> filter) {
+        tableModel.setItems(items, filter);
+    }
+
+    // 搜索結果畫面中新增的物品，只有符合關鍵字時才加入表格
+    private Predicate<Item> keywordFilter(String keyword) {
+        if (keyword.isEmpty()) {
+            return null;
         }
+        String query = keyword.toLowerCase(Locale.ROOT);
+        return item -> (item.getName() != null && item.getName().toLowerCase(Locale.ROOT).contains(query))
+            || (item.getCode() != null && item.getCode().toLowerCase(Locale.ROOT).contains(query));
+    }
+
+    // 物品異動時只更新表格中受影響的列，不重建整個表格
+    private void registerItemChangeListener() {
+        itemManager.addChangeListener(new ItemChangeListener() {
+            @Override
+            public void itemAdded(Item item) {
+                SwingUtilities.invokeLater(() -> tableModel.itemAdded(item));
+            }
+
+            @Override
+            public void itemUpdated(Item updated) {
+                SwingUtilities.invokeLater(() -> tableModel.itemUpdated(updated));
+            }
+
+            @Override
+            public void itemRemoved(Item item) {
+                SwingUtilities.invokeLater(() -> tableModel.itemRemoved(item));
+            }
+
+            @Override
+            public void itemsReloaded() {
+                SwingUtilities.invokeLater(() -> loadAllItems());
+            }
+        });
     }
 
     private void clearFormAndResetState() {
@@ -0,0 +1,130 @@
+package com.inventory.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import javax.swing.table.AbstractTableModel;
+
+import com.inventory.model.Item;
+
+/**
+ * 物品表格的資料模型
+ * 直接以物品清單作為資料來源，JTable 只會向模型要求目前可見的儲存格，
+ * 因此格式化只發生在畫面上實際顯示的列。異動時只通知受影響的列。
+ * 所有方法都必須在 EDT 上呼叫。
+ */
+public class ItemTableModel extends AbstractTableModel {
+    private final String[] columns;
+    private List<Item> rows = new ArrayList<>();
+    private Map<String, Integer> rowIndex; // 編號 -> 列，有列被移除時失效，需要時重建
+    private Predicate<Item> filter; // 目前顯示的是搜尋結果時，新物品只在符合條件時加入
+
+    public ItemTableModel(String[] columns) {
+        this.columns = columns.clone();
+    }
+
+    // 以新的清單取代目前顯示的資料；清單由模型接管，呼叫端不應再修改
+    public void setItems(List<Item> items, Predicate<Item> filter) {
+        this.rows = items;
+        this.filter = filter;
+        this.rowIndex = null;
+        fireTableDataChanged();
+    }
+
+    public void setItems(List<Item> items) {
+        setItems(items, null);
+    }
+
+    public Item getItemAt(int row) {
+        return rows.get(row);
+    }
+
+    public void itemAdded(Item item) {
+        if (filter != null && !filter.test(item)) {
+            return;
+        }
+        int row = rows.size();
+        rows.add(item);
+        if (rowIndex != null) {
+            rowIndex.put(item.getCode(), row);
+        }
+        fireTableRowsInserted(row, row);
+    }
+
+    public void itemUpdated(Item item) {
+        int row = indexOf(item.getCode());
+        if (row >= 0) {
+            rows.set(row, item);
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    public void itemRemoved(Item item) {
+        int row = indexOf(item.getCode());
+        if (row >= 0) {
+            rows.remove(row);
+            rowIndex = null;
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    private int indexOf(String code) {
+        if (rowIndex == null) {
+            rowIndex = new HashMap<>(rows.size() * 2);
+            for (int i = 0; i < rows.size(); i++) {
+                rowIndex.put(rows.get(i).getCode(), i);
+            }
+        }
+        Integer row = rowIndex.get(code);
+        return row != null ? row : -1;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // 設置表格不可編輯
+    }
+
+    // 只有可見的儲存格才會被呼叫，在這裡才進行格式化
+    @Override
+    public Object getValueAt(int row, int column) {
+        Item item = rows.get(row);
+        switch (column) {
+            case 0:
+                return item.getName();
+            case 1:
+                return item.getCode();
+            case 2:
+                return item.getFormattedAddedTime();
+            case 3:
+                return String.format("%.2f", item.getPrice());
+            case 4:
+                return (item.getImagePath() != null && !item.getImagePath().trim().isEmpty())
+                    ? "有圖片" : "無圖片";
+            default:
+                return null;
+        }
+    }
+}
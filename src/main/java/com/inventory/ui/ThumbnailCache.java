@@ -0,0 +1,76 @@
+package com.inventory.ui;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.ImageIcon;
+
+/**
+ * 已解碼縮圖的 LRU 快取
+ * 以圖片檔名為鍵，依像素佔用的記憶體 (寬 x 高 x 4 bytes) 限制總大小，
+ * 超過上限時移除最久沒有使用的縮圖。圖片檔名不會重複使用，因此不需要失效處理。
+ */
+public class ThumbnailCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, ImageIcon> icons = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+    private long hits;
+    private long misses;
+
+    public ThumbnailCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // 取得快取的縮圖，不存在時回傳 null
+    public synchronized ImageIcon get(String key) {
+        ImageIcon icon = icons.get(key);
+        if (icon != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return icon;
+    }
+
+    public synchronized void put(String key, ImageIcon icon) {
+        ImageIcon previous = icons.put(key, icon);
+        if (previous != null) {
+            currentBytes -= sizeOf(previous);
+        }
+        currentBytes += sizeOf(icon);
+
+        // 保留剛放入的縮圖，即使它本身就超過上限
+        Iterator<Map.Entry<String, ImageIcon>> eldest = icons.entrySet().iterator();
+        while (currentBytes > maxBytes && icons.size() > 1) {
+            Map.Entry<String, ImageIcon> entry = eldest.next();
+            currentBytes -= sizeOf(entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        icons.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return icons.size();
+    }
+
+    public synchronized long getBytes() {
+        return currentBytes;
+    }
+
+    private static long sizeOf(ImageIcon icon) {
+        return (long) Math.max(1, icon.getIconWidth()) * Math.max(1, icon.getIconHeight()) * 4;
+    }
+}
@@ -0,0 +1,64 @@
+package com.inventory.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 安全寫檔工具：先寫暫存檔、fsync，再以原子性的 rename 取代目標檔，
+ * 程式在寫入途中中斷時只會留下舊檔或新檔，不會出現寫到一半的檔案。
+ */
+public final class AtomicFiles {
+
+    private AtomicFiles() {
+    }
+
+    // 寫入內容的回呼
+    public interface Content {
+        void writeTo(Path temp) throws IOException;
+    }
+
+    public static Path tempFileFor(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    public static void write(Path target, Content content) throws IOException {
+        Path temp = tempFileFor(target);
+        try {
+            content.writeTo(temp);
+            commit(temp, target);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // 將已寫好的暫存檔同步到磁碟並取代目標檔
+    public static void commit(Path temp, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    // 讓 rename 本身也寫入磁碟；部分平台不支援開啟目錄，忽略即可
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // 不支援目錄 fsync 的平台
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.inventory.utils;
+
+import com.inventory.model.Item;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 二進位快照格式，用於加速啟動
+ *
+ * 檔案結構：
+ *   標頭   magic(int) version(int) count(int) tableOffset(long)
+ *   紀錄   code, name, imagePath (int 長度 + UTF-8 位元組), price(double), addedTime(long, epoch 秒)
+ *   偏移表 每筆紀錄的起始位置 (long[count])
+ *
+ * 讀取時以記憶體映射的 FileChannel 存取，並依偏移表分段平行解碼。
+ * JSON 仍是匯入/匯出用的交換格式。
+ */
+public class BinaryHandler {
+    private static final int MAGIC = 0x49544D42; // "ITMB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+    private static final int COUNT_POSITION = 8;
+    private static final int CHUNK_SIZE = 4096; // 平行解碼時每段的筆數
+
+    public List<Item> loadItems(String fileName) {
+        File file = new File(fileName);
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                System.err.println("二進位快照過大，無法映射: " + fileName);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                System.err.println("二進位快照格式不符: " + fileName);
+                return null;
+            }
+            int count = buffer.getInt();
+            long tableOffset = buffer.getLong();
+
+            long[] offsets = new long[count];
+            ByteBuffer table = buffer.duplicate();
+            table.position((int) tableOffset);
+            for (int i = 0; i < count; i++) {
+                offsets[i] = table.getLong();
+            }
+
+            // 依偏移表分段，各段使用獨立的 buffer 副本平行解碼
+            Item[] items = new Item[count];
+            int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                ByteBuffer view = buffer.duplicate();
+                int start = chunk * CHUNK_SIZE;
+                int end = Math.min(count, start + CHUNK_SIZE);
+                view.position((int) offsets[start]);
+                for (int i = start; i < end; i++) {
+                    items[i] = readRecord(view);
+                }
+            });
+            return new ArrayList<>(Arrays.asList(items));
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("讀取二進位快照時發生錯誤: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean saveItems(Iterable<Item> items, String fileName) {
+        Path target = new File(fileName).toPath();
+        Path temp = AtomicFiles.tempFileFor(target);
+
+        try {
+            long tableOffset;
+            int count = 0;
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(0);  // 筆數，寫完後回填
+                out.writeLong(0); // 偏移表位置，寫完後回填
+
+                long[] offsets = new long[1024];
+                long position = HEADER_SIZE;
+                for (Item item : items) {
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    offsets[count++] = position;
+                    position += writeRecord(out, item);
+                }
+
+                tableOffset = position;
+                for (int i = 0; i < count; i++) {
+                    out.writeLong(offsets[i]);
+                }
+            }
+
+            try (RandomAccessFile file = new RandomAccessFile(temp.toFile(), "rw")) {
+                file.seek(COUNT_POSITION);
+                file.writeInt(count);
+                file.writeLong(tableOffset);
+            }
+
+            AtomicFiles.commit(temp, target);
+            return true;
+        } catch (IOException e) {
+            System.err.println("寫入二進位快照時發生錯誤: " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // 暫存檔刪除失敗不影響原本的快照
+            }
+            return false;
+        }
+    }
+
+    // 回傳寫入的位元組數
+    private long writeRecord(DataOutputStream out, Item item) throws IOException {
+        long size = 0;
+        size += writeString(out, item.getCode());
+        size += writeString(out, item.getName());
+        size += writeString(out, item.getImagePath());
+        out.writeDouble(item.getPrice());
+        out.writeLong(item.getAddedEpochSecond()); // 與 Item 相同，沒有時間時為 Long.MIN_VALUE
+        return size + 8 + 8;
+    }
+
+    private int writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return 4;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        return 4 + bytes.length;
+    }
+
+    private Item readRecord(ByteBuffer buffer) {
+        String code = readString(buffer);
+        String name = readString(buffer);
+        String imagePath = readString(buffer);
+        double price = buffer.getDouble();
+        long epochSecond = buffer.getLong();
+        return new Item(name, code, epochSecond, price, imagePath);
+    }
+
+    private String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,193 @@
+package com.inventory.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 物品編號配發器
+ * 以常數時間配發遞增的編號 (例如 ITEM0001)，可同時被多個執行緒呼叫。
+ * 已配發的最大值 (high-water mark) 以區塊為單位預先寫入檔案，
+ * 因此刪除物品後編號也不會被重複使用，且不是每次配發都要寫檔。
+ */
+public class CodeAllocator {
+    private static final int RESERVE_BLOCK = 100; // 每次預留並寫入檔案的編號數量
+
+    // 依前綴與數字大小排序編號，ITEM10000 會排在 ITEM9999 之後
+    public static final Comparator<String> NATURAL_ORDER = CodeAllocator::compareCodes;
+
+    private final String prefix;
+    private final int width;
+    private final Path file;
+    private final AtomicLong next = new AtomicLong(1);
+    private volatile long reserved; // 小於此值的編號都已寫入檔案
+
+    // 預先取得的一段連續編號，供批次匯入使用
+    public class Lease {
+        private final long end;
+        private final AtomicLong cursor;
+
+        private Lease(long start, int count) {
+            this.cursor = new AtomicLong(start);
+            this.end = start + count;
+        }
+
+        public boolean hasNext() {
+            return cursor.get() < end;
+        }
+
+        // 取得下一個編號，用完時回傳 null
+        public String next() {
+            long number = cursor.getAndIncrement();
+            return number < end ? format(number) : null;
+        }
+
+        public int remaining() {
+            return (int) Math.max(0, end - cursor.get());
+        }
+    }
+
+    public CodeAllocator(String fileName, String prefix, int width) {
+        this.prefix = prefix;
+        this.width = width;
+        this.file = new File(fileName).toPath();
+        this.reserved = loadMark();
+        this.next.set(Math.max(1, reserved));
+    }
+
+    private long loadMark() {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("讀取編號紀錄時發生錯誤: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // 配發下一個編號
+    public String next() {
+        long number = next.getAndIncrement();
+        ensureReserved(number);
+        return format(number);
+    }
+
+    // 一次取得 count 個連續編號
+    public Lease lease(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count 必須大於 0");
+        }
+        long start = next.getAndAdd(count);
+        ensureReserved(start + count - 1);
+        return new Lease(start, count);
+    }
+
+    // 讀入既有的編號，確保之後配發的編號比它大
+    public void observe(String code) {
+        long number = parseNumber(code);
+        if (number > 0) {
+            next.accumulateAndGet(number + 1, Math::max);
+        }
+    }
+
+    private void ensureReserved(long number) {
+        if (number < reserved) {
+            return;
+        }
+        synchronized (this) {
+            if (number < reserved) {
+                return;
+            }
+            long mark = Math.max(number + 1, next.get()) + RESERVE_BLOCK;
+            writeMark(mark);
+            reserved = mark;
+        }
+    }
+
+    // 正常關閉時寫入實際用到的位置，下次啟動不會跳過預留但未使用的編號
+    public synchronized void close() {
+        long used = next.get();
+        writeMark(used);
+        reserved = used;
+    }
+
+    private void writeMark(long mark) {
+        try {
+            AtomicFiles.write(file, temp -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writer.write(Long.toString(mark));
+                }
+            });
+        } catch (IOException e) {
+            // 仍可繼續配發，重新啟動時會再從既有編號推算
+            System.err.println("寫入編號紀錄時發生錯誤: " + e.getMessage());
+        }
+    }
+
+    private String format(long number) {
+        String digits = Long.toString(number);
+        StringBuilder builder = new StringBuilder(prefix.length() + Math.max(width, digits.length()));
+        builder.append(prefix);
+        for (int i = digits.length(); i < width; i++) {
+            builder.append('0');
+        }
+        return builder.append(digits).toString();
+    }
+
+    // 不符合「前綴 + 數字」格式時回傳 -1
+    private long parseNumber(String code) {
+        if (code == null || !code.startsWith(prefix) || code.length() == prefix.length()
+                || code.length() - prefix.length() > 18) {
+            return -1;
+        }
+        long number = 0;
+        for (int i = prefix.length(); i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private static int compareCodes(String a, String b) {
+        int digitsA = trailingDigitsStart(a);
+        int digitsB = trailingDigitsStart(b);
+        int prefixCompare = a.substring(0, digitsA).compareTo(b.substring(0, digitsB));
+        if (prefixCompare != 0) {
+            return prefixCompare;
+        }
+        // 去掉前導零後位數多的數字較大，位數相同時逐字比較
+        int startA = skipZeros(a, digitsA);
+        int startB = skipZeros(b, digitsB);
+        int lengthCompare = Integer.compare(a.length() - startA, b.length() - startB);
+        if (lengthCompare != 0) {
+            return lengthCompare;
+        }
+        int numberCompare = a.substring(startA).compareTo(b.substring(startB));
+        return numberCompare != 0 ? numberCompare : a.compareTo(b);
+    }
+
+    private static int trailingDigitsStart(String code) {
+        int i = code.length();
+        while (i > 0 && Character.isDigit(code.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static int skipZeros(String code, int start) {
+        while (start < code.length() - 1 && code.charAt(start) == '0') {
+            start++;
+        }
+        return start;
+    }
+}
@@ -0,0 +1,134 @@
+package com.inventory.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 逐筆讀取 CSV (RFC 4180) 的讀取器
+ * 一次只保留一筆紀錄，可處理任意大小的檔案；支援以雙引號包住的欄位、欄位中的逗號、
+ * 換行及以兩個雙引號表示的引號，行尾可以是 \n 或 \r\n。
+ * 單筆紀錄超過長度上限或引號到檔案結尾都沒有結束時拋出 IOException (含紀錄開始的行號)，
+ * 避免少了一個引號就把檔案剩下的內容全部讀進同一個欄位。
+ */
+public class CsvReader {
+    public static final int MAX_RECORD_LENGTH = 64 * 1024; // 單筆紀錄最多的字元數
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private final StringBuilder field = new StringBuilder();
+    private final StringBuilder raw = new StringBuilder(); // 目前紀錄的原始內容 (不含行尾)
+    private long lineNumber; // 目前紀錄開始的行號，從 1 開始
+    private long nextLine = 1;
+
+    public CsvReader(Reader reader) {
+        this(reader, MAX_RECORD_LENGTH);
+    }
+
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // 讀取下一筆紀錄，檔案結束時回傳 null
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber = nextLine;
+        raw.setLength(0);
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean afterQuote = false; // 引號欄位已結束，等待逗號或行尾
+
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    throw formatError("引號到檔案結尾都沒有結束");
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (raw.length() > maxRecordLength) {
+                throw formatError(quoted ? "紀錄超過 " + maxRecordLength + " 字元，可能是引號沒有結束"
+                        : "紀錄超過 " + maxRecordLength + " 字元");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                        raw.append("\"\"");
+                    } else {
+                        raw.append('"');
+                        quoted = false;
+                        afterQuote = true;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        nextLine++;
+                    }
+                    field.append((char) c);
+                    raw.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+                raw.append(',');
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n' && next != -1) {
+                        position--; // 單獨的 \r 也視為行尾
+                    }
+                }
+                nextLine++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.length() == 0 && !afterQuote) {
+                quoted = true;
+                raw.append('"');
+            } else {
+                field.append((char) c);
+                raw.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private IOException formatError(String reason) {
+        return new IOException("CSV 格式錯誤 (第 " + lineNumber + " 行開始的紀錄): " + reason);
+    }
+
+    // 最後一筆紀錄開始的行號
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    // 最後一筆紀錄的原始內容，寫入錯誤紀錄時使用
+    public String getRawRecord() {
+        return raw.toString();
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
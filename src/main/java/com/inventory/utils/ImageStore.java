@@ -0,0 +1,222 @@
+package com.inventory.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+/**
+ * 以內容雜湊命名的圖片儲存區
+ * 圖片檔名為內容的 SHA-256 加上原副檔名，相同的圖片只會存一份；
+ * 每個檔名記錄被多少物品引用，最後一個引用消失時才刪除檔案及其縮圖。
+ *
+ * 匯入後到物品實際引用之前，檔案由匯入者暫時持有 (計入引用數)，
+ * 避免這段期間另一個物品刪除同一張圖片時把檔案刪掉。
+ * 物品開始引用時 (retain) 會優先接手匯入者的持有；匯入後決定不用時呼叫 discard。
+ * 引用數在啟動時由物品資料重建，不另外存檔。
+ *
+ * 檔名一律視為不可信的輸入 (可能來自資料檔或 HTTP API)：只接受不含目錄的單純檔名，
+ * 解析後必須仍在圖片目錄內；只有記錄過引用數的檔名才會被刪除。
+ */
+public class ImageStore {
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final Path thumbnailDirectory;
+    private final LongConsumer copyListener; // 實際複製檔案時收到寫入的位元組數
+    private final Map<String, Integer> references = new HashMap<>();
+    private final Map<String, Integer> pending = new HashMap<>(); // 已匯入但尚未被物品引用的數量
+
+    public ImageStore(Path directory, Path thumbnailDirectory) {
+        this(directory, thumbnailDirectory, bytes -> { });
+    }
+
+    public ImageStore(Path directory, Path thumbnailDirectory, LongConsumer copyListener) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.thumbnailDirectory = thumbnailDirectory.toAbsolutePath().normalize();
+        this.copyListener = copyListener;
+    }
+
+    // 圖片檔的位置；不是單純檔名 (含路徑分隔符號、..、絕對路徑) 時拋出 IllegalArgumentException
+    public Path resolve(String name) {
+        return resolveIn(directory, name);
+    }
+
+    public Path thumbnailPath(String name) {
+        return resolveIn(thumbnailDirectory, name + ".png");
+    }
+
+    // 是否為可以存放在圖片目錄中的單純檔名
+    public static boolean isValidName(String name) {
+        if (isEmpty(name) || name.equals(".") || name.equals("..")
+                || name.indexOf('/') >= 0 || name.indexOf('\\') >= 0 || name.indexOf('\0') >= 0) {
+            return false;
+        }
+        try {
+            Path path = Paths.get(name);
+            return !path.isAbsolute() && path.getNameCount() == 1;
+        } catch (InvalidPathException e) {
+            return false;
+        }
+    }
+
+    private static Path resolveIn(Path base, String name) {
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("不合法的圖片檔名: " + name);
+        }
+        Path path = base.resolve(name).normalize();
+        if (!path.startsWith(base)) {
+            throw new IllegalArgumentException("不合法的圖片檔名: " + name);
+        }
+        return path;
+    }
+
+    // 匯入圖片並回傳儲存的檔名；內容相同的圖片已存在時不再複製
+    public String importFile(Path source) throws IOException {
+        String name = hash(source) + extensionOf(source);
+        synchronized (this) {
+            references.merge(name, 1, Integer::sum);
+            pending.merge(name, 1, Integer::sum);
+        }
+        try {
+            Path target = resolve(name);
+            if (!Files.exists(target)) {
+                copyListener.accept(copy(source, target));
+            }
+            return name;
+        } catch (IOException e) {
+            discard(name);
+            throw e;
+        }
+    }
+
+    // 物品開始引用圖片；不合法的檔名不計入引用數，之後也不會被刪除
+    public synchronized void retain(String name) {
+        if (!isValidName(name)) {
+            return;
+        }
+        if (pending.containsKey(name)) {
+            // 匯入者的持有轉給物品，引用數不變
+            decrement(pending, name);
+        } else {
+            references.merge(name, 1, Integer::sum);
+        }
+    }
+
+    // 物品不再引用圖片，最後一個引用消失時刪除檔案；沒有引用紀錄的檔名一律不處理
+    public synchronized void release(String name) {
+        if (!isValidName(name) || !references.containsKey(name)) {
+            return;
+        }
+        if (decrement(references, name) == 0) {
+            delete(name);
+        }
+    }
+
+    // 匯入後沒有被任何物品使用 (例如作業被取消)
+    public synchronized void discard(String name) {
+        if (isEmpty(name) || !pending.containsKey(name)) {
+            return;
+        }
+        decrement(pending, name);
+        release(name);
+    }
+
+    public synchronized int referenceCount(String name) {
+        return references.getOrDefault(name, 0);
+    }
+
+    // 目前儲存的不同圖片數量
+    public synchronized int imageCount() {
+        return references.size();
+    }
+
+    private static boolean isEmpty(String name) {
+        return name == null || name.trim().isEmpty();
+    }
+
+    // 計數減一並回傳結果，歸零時移除
+    private static int decrement(Map<String, Integer> counts, String name) {
+        Integer count = counts.get(name);
+        if (count == null || count <= 1) {
+            counts.remove(name);
+            return 0;
+        }
+        counts.put(name, count - 1);
+        return count - 1;
+    }
+
+    private void delete(String name) {
+        try {
+            Files.deleteIfExists(resolve(name));
+            Files.deleteIfExists(thumbnailPath(name));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("刪除圖片檔案時發生錯誤: " + e.getMessage());
+        }
+    }
+
+    // 以 transferTo 複製 (可由作業系統直接在核心中搬移資料)，寫入暫存檔後才改名，
+    // 同時匯入相同內容時最後的檔案內容仍然一致；回傳複製的位元組數
+    private static long copy(Path source, Path target) throws IOException {
+        long size;
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return size;
+    }
+
+    private static String hash(Path source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("不支援 SHA-256", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static String extensionOf(Path source) {
+        String fileName = source.getFileName().toString();
+        int lastDotIndex = fileName.lastIndexOf('.');
+        return lastDotIndex > 0 ? fileName.substring(lastDotIndex).toLowerCase(Locale.ROOT) : "";
+    }
+}
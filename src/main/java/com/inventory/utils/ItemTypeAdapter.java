@@ -0,0 +1,87 @@
+package com.inventory.utils;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.inventory.model.Item;
+
+import com.inventory.model.Timestamps;
+
+import java.io.IOException;
+
+/**
+ * Item 的手寫 JSON 編解碼器
+ * 直接在 token 層讀寫欄位，不經過反射，欄位格式與原本的 data.json 相容。
+ * 加入時間以 Timestamps 的固定寬度格式讀寫，不經過 LocalDateTime。
+ */
+public class ItemTypeAdapter extends TypeAdapter<Item> {
+
+    @Override
+    public void write(JsonWriter out, Item item) throws IOException {
+        if (item == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        if (item.getName() != null) {
+            out.name("name").value(item.getName());
+        }
+        if (item.getCode() != null) {
+            out.name("code").value(item.getCode());
+        }
+        if (item.getAddedEpochSecond() != Timestamps.NONE) {
+            out.name("addedTime").value(Timestamps.format(item.getAddedEpochSecond()));
+        }
+        out.name("price").value(item.getPrice());
+        out.name("imagePath").value(item.getImagePath());
+        out.endObject();
+    }
+
+    @Override
+    public Item read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String name = null;
+        String code = null;
+        long addedTime = Timestamps.NONE;
+        boolean hasAddedTime = false;
+        double price = 0;
+        String imagePath = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "name":
+                    name = in.nextString();
+                    break;
+                case "code":
+                    code = in.nextString();
+                    break;
+                case "addedTime":
+                    addedTime = Timestamps.parse(in.nextString());
+                    hasAddedTime = true;
+                    break;
+                case "price":
+                    price = in.nextDouble();
+                    break;
+                case "imagePath":
+                    imagePath = in.nextString();
+                    break;
+                default:
+                    // 略過未知欄位
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        // 資料中沒有加入時間時使用目前時間
+        return new Item(name, code, hasAddedTime ? addedTime : Timestamps.now(), price, imagePath);
+    }
+}
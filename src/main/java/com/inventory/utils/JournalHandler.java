@@ -0,0 +1,282 @@
+package com.inventory.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.inventory.model.Item;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 附加式寫入日誌 (write-ahead journal)
+ * 每次異動只在日誌尾端附加一行 JSON 紀錄，完整快照只在檢查點時才重寫，
+ * 啟動時先載入快照再重播日誌，因此單次編輯的寫入成本與庫存大小無關。
+ *
+ * 日誌分成多個區段 (data.journal.1, data.journal.2 ...)。檢查點開始時先切換到新區段，
+ * 等快照確實寫入磁碟後才刪除舊區段，因此快照可以在背景寫入而不會遺失期間的異動。
+ */
+public class JournalHandler {
+    private static final String OP_PUT = "put";
+    private static final String OP_DELETE = "delete";
+
+    private final File baseFile;
+    private final Gson gson;
+    private File file;
+    private int segment;
+    private FileOutputStream output;
+    private Writer writer;
+    private int recordCount;
+    private long position; // 目前區段已寫入的長度
+    private long bytesWritten;
+    private long pendingBytes; // 自上次檢查點以來日誌的大小
+
+    // 重播日誌時的回呼
+    public interface ReplayListener {
+        void onPut(Item item);
+
+        void onDelete(String code);
+    }
+
+    public JournalHandler(String fileName, Gson gson) {
+        this.baseFile = new File(fileName).getAbsoluteFile();
+        this.gson = gson;
+        List<Integer> segments = listSegments();
+        this.segment = segments.isEmpty() ? 1 : Math.max(1, segments.get(segments.size() - 1));
+        this.file = segmentFile(segment);
+    }
+
+    // 依序重播所有區段中的紀錄，回傳成功重播的筆數
+    // 重播後一律改寫入新區段：最後一個區段結尾可能是寫到一半的紀錄，接著附加會黏在那一行後面，
+    // 下次重播在該行停止時連同之後的紀錄一起遺失；舊區段留到下次檢查點再刪除
+    public int replay(ReplayListener listener) {
+        recordCount = 0;
+        pendingBytes = 0;
+        List<Integer> segments = listSegments();
+        for (int seq : segments) {
+            File segmentFile = segmentFile(seq);
+            replaySegment(segmentFile, listener);
+            pendingBytes += segmentFile.length();
+        }
+        if (!segments.isEmpty() && segmentFile(segment).length() > 0) {
+            close();
+            segment = Math.max(segment, segments.get(segments.size() - 1)) + 1;
+            file = segmentFile(segment);
+        }
+        return recordCount;
+    }
+
+    private void replaySegment(File segmentFile, ReplayListener listener) {
+        try (BufferedReader reader = Files.newBufferedReader(segmentFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+                    String op = record.get("op").getAsString();
+                    if (OP_PUT.equals(op)) {
+                        listener.onPut(gson.fromJson(record.get("item"), Item.class));
+                    } else if (OP_DELETE.equals(op)) {
+                        listener.onDelete(record.get("code").getAsString());
+                    }
+                    recordCount++;
+                } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+                    // 程式中斷時最後一行可能只寫了一半，忽略此區段之後的內容 (新的紀錄會寫在新區段)
+                    System.err.println("日誌紀錄損毀，已略過: " + e.getMessage());
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("讀取日誌時發生錯誤: " + e.getMessage());
+        }
+    }
+
+    public boolean appendPut(Item item) {
+        return appendPuts(Collections.singletonList(item));
+    }
+
+    public boolean appendDelete(String code) {
+        return appendDeletes(Collections.singletonList(code));
+    }
+
+    // 批次附加，整批只 flush 一次
+    public boolean appendPuts(Collection<Item> items) {
+        try {
+            Writer out = openWriter();
+            for (Item item : items) {
+                writeRecord(out, putRecord(item));
+            }
+            out.flush();
+            countWritten();
+            return true;
+        } catch (IOException e) {
+            System.err.println("寫入日誌時發生錯誤: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean appendDeletes(Collection<String> codes) {
+        try {
+            Writer out = openWriter();
+            for (String code : codes) {
+                writeRecord(out, deleteRecord(code));
+            }
+            out.flush();
+            countWritten();
+            return true;
+        } catch (IOException e) {
+            System.err.println("寫入日誌時發生錯誤: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private JsonObject putRecord(Item item) {
+        JsonObject record = new JsonObject();
+        record.addProperty("op", OP_PUT);
+        record.add("item", gson.toJsonTree(item));
+        return record;
+    }
+
+    private JsonObject deleteRecord(String code) {
+        JsonObject record = new JsonObject();
+        record.addProperty("op", OP_DELETE);
+        record.addProperty("code", code);
+        return record;
+    }
+
+    private Writer openWriter() throws IOException {
+        if (writer == null) {
+            output = new FileOutputStream(file, true);
+            writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            position = output.getChannel().size();
+        }
+        return writer;
+    }
+
+    private void countWritten() throws IOException {
+        long end = output.getChannel().size();
+        bytesWritten += end - position;
+        pendingBytes += end - position;
+        position = end;
+    }
+
+    // 啟動以來附加到日誌的位元組數
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    // 將目前區段同步到磁碟
+    public boolean sync() {
+        if (writer == null) {
+            return true;
+        }
+        try {
+            writer.flush();
+            output.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            System.err.println("同步日誌時發生錯誤: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void writeRecord(Writer out, JsonObject record) throws IOException {
+        out.write(gson.toJson(record));
+        out.write('\n');
+        recordCount++;
+    }
+
+    // 自上次檢查點以來的紀錄數
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    // 自上次檢查點以來寫入的位元組數
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    // 封存目前的區段並改寫入新區段，回傳被封存的區段編號
+    public int rotate() {
+        close();
+        int sealed = segment;
+        segment++;
+        file = segmentFile(segment);
+        recordCount = 0;
+        pendingBytes = 0;
+        return sealed;
+    }
+
+    // 刪除編號不大於 sealed 的區段；可在背景執行緒呼叫，只會動到已封存的檔案
+    public void deleteSegmentsUpTo(int sealed) {
+        for (int seq : listSegments()) {
+            if (seq > sealed) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segmentFile(seq).toPath());
+            } catch (IOException e) {
+                System.err.println("清除日誌時發生錯誤: " + e.getMessage());
+            }
+        }
+    }
+
+    // 快照寫入完成後清空日誌
+    public void reset() {
+        deleteSegmentsUpTo(rotate());
+    }
+
+    // 舊版單一檔案的 data.journal 視為第 0 區段
+    private File segmentFile(int seq) {
+        return seq == 0 ? baseFile : new File(baseFile.getPath() + "." + seq);
+    }
+
+    private List<Integer> listSegments() {
+        List<Integer> segments = new ArrayList<>();
+        File directory = baseFile.getParentFile();
+        String prefix = baseFile.getName() + ".";
+        String[] names = directory != null ? directory.list() : null;
+        if (names == null) {
+            return segments;
+        }
+        for (String name : names) {
+            if (name.equals(baseFile.getName())) {
+                segments.add(0);
+            } else if (name.startsWith(prefix)) {
+                try {
+                    segments.add(Integer.parseInt(name.substring(prefix.length())));
+                } catch (NumberFormatException e) {
+                    // 不是日誌區段的檔案
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    public void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("關閉日誌時發生錯誤: " + e.getMessage());
+            }
+            writer = null;
+            output = null;
+        }
+    }
+}
@@ -2,66 +2,104 @@ package com.inventory.utils;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonSerializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.inventory.model.Item;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.DateTimeException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class JsonHandler {
-    private final Gson gson;
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final ItemTypeAdapter itemAdapter;
+    private final Gson compactGson;
+    private final boolean compact;
 
     public JsonHandler() {
-        // 設定Gson以適當處理LocalDateTime
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        
-        // 序列化LocalDateTime
-        JsonSerializer<LocalDateTime> serializer = (src, typeOfSrc, context) -> 
-            new JsonPrimitive(formatter.format(src));
-            
-        // 反序列化LocalDateTime
-        JsonDeserializer<LocalDateTime> deserializer = (json, typeOfT, context) -> 
-            LocalDateTime.parse(json.getAsString(), formatter);
-            
-        gsonBuilder.registerTypeAdapter(LocalDateTime.class, serializer);
-        gsonBuilder.registerTypeAdapter(LocalDateTime.class, deserializer);
-        gsonBuilder.setPrettyPrinting();
-        
-        this.gson = gsonBuilder.create();
+        this(false);
     }
 
-    public List<Item> loadItems(String fileName) {
+    // compact 為 true 時輸出不含縮排與換行的 JSON
+    public JsonHandler(boolean compact) {
+        this.compact = compact;
+        this.itemAdapter = new ItemTypeAdapter();
+
+        // 日誌等單行紀錄使用同一個編解碼器
+        this.compactGson = new GsonBuilder()
+                .registerTypeAdapter(Item.class, itemAdapter)
+                .create();
+    }
+
+    public Gson getCompactGson() {
+        return compactGson;
+    }
+
+    // 檔案不存在時回傳空清單；無法讀取或格式錯誤時拋出 IOException，不回傳只讀到一部分的資料
+    public List<Item> loadItems(String fileName) throws IOException {
+        List<Item> items = new ArrayList<>();
+        loadItems(fileName, items::add);
+        return items;
+    }
+
+    // 邊解析邊把物品交給 sink，不需要先把整份檔案讀進記憶體，回傳讀到的筆數
+    // 讀到一半失敗時 sink 已收到前面的物品，呼叫端必須捨棄這些物品，也不可再以它們覆寫原檔
+    public int loadItems(String fileName, Consumer<Item> sink) throws IOException {
         File file = new File(fileName);
         if (!file.exists()) {
-            return new ArrayList<>();
+            return 0;
         }
 
-        try (FileReader reader = new FileReader(file)) {
-            Type itemListType = new TypeToken<ArrayList<Item>>(){}.getType();
-            return gson.fromJson(reader, itemListType);
-        } catch (IOException e) {
-            System.err.println("讀取檔案時發生錯誤: " + e.getMessage());
-            return new ArrayList<>();
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+             JsonReader jsonReader = new JsonReader(reader)) {
+            if (jsonReader.peek() == JsonToken.NULL) {
+                return 0;
+            }
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                Item item = itemAdapter.read(jsonReader);
+                if (item != null) {
+                    sink.accept(item);
+                    count++;
+                }
+            }
+            jsonReader.endArray();
+        } catch (JsonParseException | IllegalStateException | DateTimeException e) {
+            throw new IOException("資料檔格式錯誤 (" + fileName + "，第 " + (count + 1) + " 筆): " + e.getMessage(), e);
         }
+        return count;
     }
 
-    public void saveItems(List<Item> items, String fileName) {
-        try (FileWriter writer = new FileWriter(fileName)) {
-            gson.toJson(items, writer);
-        } catch (IOException e) {
+    // 寫入暫存檔後以原子性的 rename 取代原檔
+    public boolean saveItems(Iterable<Item> items, String fileName) {
+        try {
+            AtomicFiles.write(new File(fileName).toPath(), temp -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+                     JsonWriter jsonWriter = new JsonWriter(writer)) {
+                    if (!compact) {
+                        jsonWriter.setIndent("  ");
+                    }
+                    jsonWriter.beginArray();
+                    for (Item item : items) {
+                        itemAdapter.write(jsonWriter, item);
+                    }
+                    jsonWriter.endArray();
+                }
+            });
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            // IllegalArgumentException: 無法寫成 JSON 的數值 (NaN、無限大)，回傳失敗而不是讓背景寫入的執行緒中斷
             System.err.println("寫入檔案時發生錯誤: " + e.getMessage());
+            return false;
         }
     }
-} 
\ No newline at end of file
+}
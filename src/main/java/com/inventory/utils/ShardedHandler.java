@@ -0,0 +1,231 @@
+package com.inventory.utils;
+
+import com.inventory.model.Item;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 分片儲存的快照
+ * 物品依編號的雜湊值分到 N 個 JSON 檔 (格式與 data.json 相同)，啟動時在 fork-join pool 上平行讀取，
+ * 寫入時只重寫內容有變動的分片，因此載入時間隨核心數縮短，寫入時間隨異動量而非總物品數增加。
+ *
+ * 已發佈的物品不會被修改 (修改時以新物品取代)，因此分片是否變動只要逐一比對物品參照即可。
+ * 分片檔名包含分片數 (例如 shard-16-03.json)，目錄中的 shards 檔記錄目前使用的分片數；
+ * 改變分片數時先寫出全部新分片，最後才更新 shards 檔並刪除舊分片，途中中斷時仍會讀到完整的舊分片。
+ */
+public class ShardedHandler {
+    private static final String MANIFEST = "shards";
+    private static final String FILE_PREFIX = "shard-";
+    private static final Comparator<Item> CODE_ORDER = Comparator.comparing(Item::getCode, CodeAllocator.NATURAL_ORDER);
+
+    private final Path directory;
+    private final int shardCount; // 0 表示未啟用分片
+    private final JsonHandler jsonHandler;
+
+    // 以下欄位由 this 的監視器保護
+    private int storedCount; // 磁碟上目前使用的分片數，0 表示沒有分片資料
+    private final Item[][] written; // 每個分片最後寫入的物品，null 表示需要重寫
+    private long bytesWritten;
+
+    public ShardedHandler(String directory, int shardCount, JsonHandler jsonHandler) {
+        this.directory = Paths.get(directory);
+        this.shardCount = shardCount;
+        this.jsonHandler = jsonHandler;
+        this.written = new Item[shardCount][];
+        this.storedCount = readManifest();
+    }
+
+    public boolean isEnabled() {
+        return shardCount > 0;
+    }
+
+    // 物品所屬的分片
+    public static int shardOf(String code, int shardCount) {
+        return Math.floorMod(code.hashCode(), shardCount);
+    }
+
+    // 平行讀取所有分片並依編號排序；沒有分片資料時回傳 null
+    // 任何一個分片缺少或無法讀取時拋出 IOException，不回傳缺了分片的資料
+    public synchronized List<Item> loadItems() throws IOException {
+        if (storedCount == 0) {
+            return null;
+        }
+        int count = storedCount;
+        @SuppressWarnings("unchecked")
+        List<Item>[] shards = new List[count];
+        try {
+            IntStream.range(0, count).parallel().forEach(i -> shards[i] = loadShard(count, i));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        int total = 0;
+        for (List<Item> shard : shards) {
+            total += shard.size();
+        }
+        Item[] all = new Item[total];
+        int position = 0;
+        for (List<Item> shard : shards) {
+            for (Item item : shard) {
+                all[position++] = item;
+            }
+        }
+        // 分片之間沒有先後順序，依編號排序讓每次載入的順序一致
+        Arrays.parallelSort(all, CODE_ORDER);
+        List<Item> items = Arrays.asList(all);
+
+        if (count == shardCount) {
+            // 記錄磁碟上的內容，之後只重寫有變動的分片
+            List<Item>[] partitioned = partition(items);
+            for (int i = 0; i < shardCount; i++) {
+                written[i] = partitioned[i].toArray(new Item[0]);
+            }
+        }
+        return items;
+    }
+
+    private List<Item> loadShard(int count, int index) {
+        Path file = shardFile(count, index);
+        try {
+            if (!Files.exists(file)) {
+                throw new IOException("找不到分片檔案: " + file);
+            }
+            return jsonHandler.loadItems(file.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 只重寫內容與上次寫入不同的分片 (平行寫入)，全部成功時回傳 true；失敗的分片下次會再寫一次
+    public synchronized boolean saveItems(List<Item> snapshot) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            System.err.println("建立分片目錄時發生錯誤: " + e.getMessage());
+            return false;
+        }
+        List<Item>[] partitioned = partition(snapshot);
+        int[] changed = IntStream.range(0, shardCount)
+                .filter(i -> written[i] == null || !sameItems(written[i], partitioned[i]))
+                .toArray();
+
+        boolean[] saved = new boolean[shardCount];
+        Arrays.stream(changed).parallel().forEach(i ->
+                saved[i] = jsonHandler.saveItems(partitioned[i], shardFile(shardCount, i).toString()));
+
+        boolean allSaved = true;
+        for (int i : changed) {
+            if (saved[i]) {
+                written[i] = partitioned[i].toArray(new Item[0]);
+                bytesWritten += shardFile(shardCount, i).toFile().length();
+            } else {
+                allSaved = false;
+            }
+        }
+        if (allSaved && storedCount != shardCount) {
+            allSaved = switchLayout();
+        }
+        return allSaved;
+    }
+
+    // 新分片都寫好後才切換，再刪除舊分片
+    private boolean switchLayout() {
+        try {
+            AtomicFiles.write(directory.resolve(MANIFEST),
+                    temp -> Files.write(temp, String.valueOf(shardCount).getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            System.err.println("寫入分片設定時發生錯誤: " + e.getMessage());
+            return false;
+        }
+        int previous = storedCount;
+        storedCount = shardCount;
+        if (previous > 0) {
+            deleteShards(previous);
+        }
+        return true;
+    }
+
+    // 停用分片並改回單一檔案後，移除所有分片資料
+    public synchronized void delete() {
+        try {
+            Files.deleteIfExists(directory.resolve(MANIFEST));
+        } catch (IOException e) {
+            System.err.println("刪除分片設定時發生錯誤: " + e.getMessage());
+            return;
+        }
+        if (storedCount > 0) {
+            deleteShards(storedCount);
+        }
+        storedCount = 0;
+    }
+
+    // 啟動以來寫入分片的位元組數
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private void deleteShards(int count) {
+        String prefix = FILE_PREFIX + count + "-";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*.json")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            System.err.println("刪除分片檔案時發生錯誤: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Item>[] partition(List<Item> snapshot) {
+        List<Item>[] shards = new List[shardCount];
+        int expected = snapshot.size() / Math.max(1, shardCount) + 1;
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ArrayList<>(expected);
+        }
+        for (Item item : snapshot) {
+            shards[shardOf(item.getCode(), shardCount)].add(item);
+        }
+        return shards;
+    }
+
+    private static boolean sameItems(Item[] previous, List<Item> current) {
+        if (previous.length != current.size()) {
+            return false;
+        }
+        for (int i = 0; i < previous.length; i++) {
+            if (previous[i] != current.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Path shardFile(int count, int index) {
+        int digits = String.valueOf(count - 1).length();
+        return directory.resolve(FILE_PREFIX + count + "-" + String.format("%0" + digits + "d", index) + ".json");
+    }
+
+    private int readManifest() {
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(new String(Files.readAllBytes(manifest), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("讀取分片設定時發生錯誤: " + e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.inventory.utils;
+
+import com.inventory.model.Item;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 背景快照寫入器
+ * 短時間內的多次寫入請求會合併成一次，只寫入最新的快照；
+ * 寫入在專用的背景執行緒進行，呼叫端 (例如 Swing EDT) 不會被阻塞。
+ */
+public class SnapshotWriter {
+    private static final long RETRY_DELAY_MILLIS = 2000;
+
+    // 實際寫入快照的方法，成功時回傳 true
+    public interface Saver {
+        boolean save(List<Item> snapshot);
+    }
+
+    private final Saver saver;
+    private final long debounceMillis;
+    private final ScheduledExecutorService executor;
+
+    // 以下欄位皆由 this 的監視器保護
+    private List<Item> pendingSnapshot;
+    private Runnable pendingOnDurable;
+    private boolean scheduled;
+    private long requestedGeneration;
+    private long durableGeneration;
+
+    public SnapshotWriter(Saver saver, long debounceMillis) {
+        this.saver = saver;
+        this.debounceMillis = debounceMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 提交新的快照，onDurable 在快照寫入磁碟後於背景執行緒執行
+    public synchronized void submit(List<Item> snapshot, Runnable onDurable) {
+        pendingSnapshot = snapshot;
+        pendingOnDurable = onDurable;
+        requestedGeneration++;
+        schedule(debounceMillis);
+    }
+
+    private synchronized void schedule(long delayMillis) {
+        if (!scheduled) {
+            scheduled = true;
+            executor.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain() {
+        List<Item> snapshot;
+        Runnable onDurable;
+        long generation;
+        synchronized (this) {
+            scheduled = false;
+            if (pendingSnapshot == null) {
+                return;
+            }
+            snapshot = pendingSnapshot;
+            onDurable = pendingOnDurable;
+            generation = requestedGeneration;
+            pendingSnapshot = null;
+            pendingOnDurable = null;
+        }
+
+        if (saver.save(snapshot)) {
+            if (onDurable != null) {
+                onDurable.run();
+            }
+            synchronized (this) {
+                durableGeneration = Math.max(durableGeneration, generation);
+                notifyAll();
+            }
+        } else {
+            synchronized (this) {
+                // 寫入失敗且沒有更新的快照時，稍後重試
+                if (pendingSnapshot == null) {
+                    pendingSnapshot = snapshot;
+                    pendingOnDurable = onDurable;
+                }
+            }
+            schedule(RETRY_DELAY_MILLIS);
+        }
+    }
+
+    // 立即寫入尚未寫出的快照並等待完成
+    public boolean flush() {
+        try {
+            executor.submit(this::drain).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            System.err.println("寫入快照時發生錯誤: " + e.getCause());
+            return false;
+        }
+        return isDurable();
+    }
+
+    // 等待目前為止提交的快照都寫入磁碟
+    public synchronized boolean awaitDurable(long timeout, TimeUnit unit) throws InterruptedException {
+        long target = requestedGeneration;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (durableGeneration < target) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    public synchronized boolean isDurable() {
+        return durableGeneration >= requestedGeneration;
+    }
+
+    // 寫出剩餘的快照並停止背景執行緒
+    public void close() {
+        flush();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,95 @@
+package com.inventory.utils;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.UUID;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * 縮圖產生工具
+ * 大張相片解碼時先以整數倍率抽樣 (subsampling)，只解碼需要的像素，
+ * 再以雙線性內插縮到目標大小，比先完整解碼再 getScaledInstance 快得多。
+ */
+public class Thumbnails {
+    public static final int WIDTH = 190;
+    public static final int HEIGHT = 140;
+
+    private Thumbnails() {
+    }
+
+    // 讀取圖片並縮小到 maxWidth x maxHeight 以內 (保持比例，不放大)；無法解碼時回傳 null
+    public static BufferedImage read(Path source, int maxWidth, int maxHeight) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                // 抽樣後仍保留至少兩倍目標大小，縮小時才不會有明顯鋸齒
+                int step = Math.max(1, Math.min(width / (maxWidth * 2), height / (maxHeight * 2)));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return scale(reader.read(0, param), maxWidth, maxHeight);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 產生縮圖並寫成 PNG；來源無法解碼時回傳 false
+    public static boolean create(Path source, Path target) throws IOException {
+        BufferedImage thumbnail = read(source, WIDTH, HEIGHT);
+        if (thumbnail == null) {
+            return false;
+        }
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        // 縮圖隨時可從原圖重建，只需避免讀到寫到一半的檔案，不必同步到磁碟；
+        // 同一張圖片可能同時被多個執行緒產生縮圖，暫存檔名不可重複
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            if (!ImageIO.write(thumbnail, "png", temp.toFile())) {
+                return false;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image, int maxWidth, int maxHeight) {
+        double scale = Math.min(1.0, Math.min((double) maxWidth / image.getWidth(),
+            (double) maxHeight / image.getHeight()));
+        int width = Math.max(1, (int) (image.getWidth() * scale));
+        int height = Math.max(1, (int) (image.getHeight() * scale));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = scaled.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g2.dispose();
+        }
+        return scaled;
+    }
+}
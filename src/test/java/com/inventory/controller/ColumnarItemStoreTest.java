@@ -0,0 +1,153 @@
+package com.inventory.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.inventory.model.Item;
+import com.inventory.model.Timestamps;
+
+// 欄式儲存區的查詢結果必須與預設的 ItemStore 相同，且刪除的物品不可再出現
+class ColumnarItemStoreTest {
+    private static final String[] NAMES = {"滑鼠", "鍵盤", "螢幕", "耳機", "Mouse Pad", "USB 線"};
+    private static final long BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    @Test
+    void deletedItemsNeverAppearInScans() {
+        ColumnarItemStore store = new ColumnarItemStore();
+        store.add(new Item("滑鼠", "ITEM00001", BASE_TIME, 100, ""));
+        store.add(new Item("鍵盤", "ITEM00002", BASE_TIME + 1, 200, "a.png"));
+        store.add(new Item("滑鼠墊", "ITEM00003", BASE_TIME + 2, 300, ""));
+
+        Item removed = store.remove("ITEM00002");
+
+        assertEquals("鍵盤", removed.getName());
+        assertNull(store.get("ITEM00002"));
+        assertFalse(store.contains("ITEM00002"));
+        assertNull(store.remove("ITEM00002"));
+        assertEquals(2, store.size());
+        assertEquals(Arrays.asList("ITEM00001", "ITEM00003"), codes(store.snapshot()));
+        assertTrue(store.search("鍵").isEmpty());
+        assertTrue(store.search("item00002").isEmpty());
+        assertEquals(Arrays.asList("ITEM00001", "ITEM00003"), codes(store.sorted(SortField.PRICE, true)));
+        assertEquals(Arrays.asList("ITEM00001", "ITEM00003"), codes(store.sorted(SortField.HAS_IMAGE, true)));
+        assertTrue(store.priceRange(150, 250).isEmpty());
+        assertEquals(400, store.totalPrice());
+        assertEquals(300, store.maxPrice());
+        assertEquals(0, store.countWithImage());
+
+        // 重新加入時排在最後，且是新的內容
+        store.add(new Item("新鍵盤", "ITEM00002", BASE_TIME + 3, 250, ""));
+        assertEquals(Arrays.asList("ITEM00001", "ITEM00003", "ITEM00002"), codes(store.snapshot()));
+        assertEquals("新鍵盤", store.get("ITEM00002").getName());
+        assertEquals(Arrays.asList("ITEM00002"), codes(store.priceRange(150, 250)));
+    }
+
+    @Test
+    void snapshotIsNotChangedByLaterWrites() {
+        ColumnarItemStore store = new ColumnarItemStore();
+        store.add(new Item("滑鼠", "ITEM00001", BASE_TIME, 100, ""));
+        List<Item> before = store.snapshot();
+
+        store.put(new Item("無線滑鼠", "ITEM00001", BASE_TIME, 120, ""));
+        store.add(new Item("鍵盤", "ITEM00002", BASE_TIME, 200, ""));
+
+        assertEquals(1, before.size());
+        assertEquals("滑鼠", before.get(0).getName());
+        assertEquals(100, before.get(0).getPrice());
+        assertNull(store.publishedSnapshot());
+        assertEquals(2, store.snapshot().size());
+    }
+
+    // 大量刪除會觸發重整，重整前後的結果都必須與 ItemStore 相同
+    @Test
+    void matchesItemStoreUnderRandomWrites() {
+        ItemStore expected = new ItemStore();
+        ColumnarItemStore actual = new ColumnarItemStore();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            String code = String.format("ITEM%05d", random.nextInt(3000));
+            int op = random.nextInt(10);
+            if (op < 5) {
+                Item item = randomItem(code, random);
+                assertEquals(expected.add(item), actual.add(item));
+            } else if (op < 7) {
+                Item item = randomItem(code, random);
+                assertEquals(describe(expected.put(item)), describe(actual.put(item)));
+            } else {
+                assertEquals(describe(expected.remove(code)), describe(actual.remove(code)));
+            }
+            if (i % 2000 == 0) {
+                assertSameResults(expected, actual, random);
+            }
+        }
+        assertSameResults(expected, actual, random);
+    }
+
+    private static Item randomItem(String code, Random random) {
+        String name = NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(50);
+        long addedTime = random.nextInt(20) == 0 ? Timestamps.NONE : BASE_TIME + random.nextInt(1000);
+        String imagePath = random.nextBoolean() ? "" : "img" + random.nextInt(10) + ".png";
+        return new Item(name, code, addedTime, random.nextInt(100), imagePath);
+    }
+
+    private static void assertSameResults(ItemStore expected, ColumnarItemStore actual, Random random) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(describe(expected.snapshot()), describe(actual.snapshot()));
+        for (String keyword : Arrays.asList("滑", "鍵盤", "mouse p", "item001", "USB 線 1", "不存在")) {
+            assertEquals(describe(expected.search(keyword)), describe(actual.search(keyword)), keyword);
+        }
+        for (SortField field : SortField.values()) {
+            for (boolean ascending : new boolean[] {true, false}) {
+                assertEquals(describe(expected.sorted(field, ascending)), describe(actual.sorted(field, ascending)),
+                        field + " " + ascending);
+                int offset = random.nextInt(expected.size() + 1);
+                assertEquals(describe(expected.sortedPage(field, ascending, offset, 50)),
+                        describe(actual.sortedPage(field, ascending, offset, 50)));
+            }
+        }
+        assertEquals(describe(expected.priceRange(20, 40)), describe(actual.priceRange(20, 40)));
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 5);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 1, 0, 10);
+        assertEquals(describe(expected.addedTimeRange(from, to)), describe(actual.addedTimeRange(from, to)));
+        for (Item item : expected.snapshot()) {
+            assertEquals(describe(item), describe(actual.get(item.getCode())));
+        }
+
+        double total = 0;
+        int withImage = 0;
+        for (Item item : expected.snapshot()) {
+            total += item.getPrice();
+            withImage += item.getImagePath().isEmpty() ? 0 : 1;
+        }
+        assertEquals(total, actual.totalPrice(), 1e-6);
+        assertEquals(withImage, actual.countWithImage());
+    }
+
+    private static List<String> codes(List<Item> items) {
+        List<String> codes = new ArrayList<>();
+        items.forEach(item -> codes.add(item.getCode()));
+        return codes;
+    }
+
+    private static List<String> describe(List<Item> items) {
+        List<String> descriptions = new ArrayList<>();
+        items.forEach(item -> descriptions.add(describe(item)));
+        return descriptions;
+    }
+
+    private static String describe(Item item) {
+        return item == null ? null : item.getCode() + "|" + item.getName() + "|" + item.getAddedEpochSecond()
+                + "|" + item.getPrice() + "|" + item.getImagePath();
+    }
+}
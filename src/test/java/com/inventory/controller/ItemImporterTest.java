@@ -0,0 +1,35 @@
+package com.inventory.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ItemImporterTest {
+    @TempDir
+    Path directory;
+
+    // 引號沒有結束時回報紀錄開始的行號，之前的列仍然匯入
+    @Test
+    void unclosedQuoteFailsWithLineNumberAndKeepsEarlierRows() throws IOException {
+        Path file = directory.resolve("items.csv");
+        Files.write(file, ("name,code,price\n滑鼠,ITEM00001,100\n鍵盤,ITEM00002,200\n\"螢幕,ITEM00003,300\n"
+                + "耳機,ITEM00004,400\n").getBytes(StandardCharsets.UTF_8));
+        ItemManager itemManager = new ItemManager(directory.resolve("data.json").toString(), new StorageOptions());
+
+        ItemImportResult result = itemManager.importItems(file, ProgressListener.NONE);
+
+        assertNotNull(result.getError());
+        assertTrue(result.getError().contains("第 4 行"), result.getError());
+        assertEquals(2, result.getImportedCount());
+        assertEquals(2, itemManager.getAllItems().size());
+        itemManager.close();
+    }
+}
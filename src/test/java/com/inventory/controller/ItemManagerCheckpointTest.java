@@ -0,0 +1,71 @@
+package com.inventory.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.inventory.model.Item;
+import com.inventory.utils.JsonHandler;
+
+// 未啟用背景寫入時，檢查點在釋放寫入鎖後才寫出快照，回傳前仍須寫入完成
+class ItemManagerCheckpointTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void checkpointWritesSnapshotAndDropsSealedSegments() throws IOException {
+        Path dataFile = directory.resolve("data.json");
+        ItemManager itemManager = new ItemManager(dataFile.toString(), new StorageOptions());
+        itemManager.addItem(new Item("滑鼠", "ITEM00001", 100));
+        itemManager.addItem(new Item("鍵盤", "ITEM00002", 200));
+        assertEquals(0, new JsonHandler(true).loadItems(dataFile.toString()).size());
+
+        assertTrue(itemManager.checkpoint());
+        assertEquals(2, new JsonHandler(true).loadItems(dataFile.toString()).size());
+        assertEquals(0, journalSegments());
+        itemManager.deleteItem("ITEM00001");
+        itemManager.close();
+
+        ItemManager reloaded = new ItemManager(dataFile.toString(), new StorageOptions());
+        assertEquals(1, reloaded.getAllItems().size());
+        assertTrue(reloaded.getItemByCode("ITEM00002").isPresent());
+        reloaded.close();
+    }
+
+    @Test
+    void writesWithoutJournalAreOnDiskWhenCallReturns() throws IOException {
+        Path dataFile = directory.resolve("data.json");
+        ItemManager itemManager = new ItemManager(dataFile.toString(), new StorageOptions().journaled(false));
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(itemManager.addItem(new Item("物品" + i, "ITEM0000" + i, i)));
+            assertEquals(i, new JsonHandler(true).loadItems(dataFile.toString()).size());
+        }
+        assertTrue(itemManager.deleteItem("ITEM00003"));
+        assertFalse(new JsonHandler(true).loadItems(dataFile.toString()).stream()
+                .anyMatch(item -> item.getCode().equals("ITEM00003")));
+        itemManager.close();
+    }
+
+    @Test
+    void deltaWritesRequireJournal() {
+        assertThrows(IllegalArgumentException.class, () -> new ItemManager(directory.resolve("data.json").toString(),
+                new StorageOptions().journaled(false).deltaWrites(true)));
+    }
+
+    private long journalSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("data.journal"))
+                    .filter(file -> file.toFile().length() > 0)
+                    .count();
+        }
+    }
+}
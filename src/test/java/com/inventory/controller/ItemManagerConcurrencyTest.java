@@ -0,0 +1,183 @@
+package com.inventory.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.inventory.model.Item;
+
+// 多個寫入者同時新增/修改/刪除時，讀取端 (查詢、搜尋、排序) 看到的索引與儲存區必須一致
+// 預設的 ItemStore 與欄式儲存區 (columnar) 都要測試
+class ItemManagerConcurrencyTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 6;
+    private static final int OPERATIONS_PER_WRITER = 3000;
+    private static final int CODES_PER_WRITER = 200;
+    private static final int PAGE_SIZE = 100;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void readersSeeConsistentIndexesWhileWritersModify(boolean columnar) throws Exception {
+        String dataFile = directory.resolve("data.json").toString();
+        ItemManager itemManager = new ItemManager(dataFile, new StorageOptions().columnar(columnar));
+        List<Map<String, Item>> expected = new ArrayList<>();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch writersDone = new CountDownLatch(WRITERS);
+        List<Thread> threads = new ArrayList<>();
+
+        // 每個寫入者只動自己前綴的編號，因此可以各自記錄預期的結果
+        for (int w = 0; w < WRITERS; w++) {
+            Map<String, Item> state = new HashMap<>();
+            expected.add(state);
+            String prefix = "W" + w + "-";
+            long seed = w;
+            threads.add(new Thread(() -> {
+                try {
+                    write(itemManager, prefix, state, new Random(seed));
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    writersDone.countDown();
+                }
+            }, "writer-" + w));
+        }
+        for (int r = 0; r < READERS; r++) {
+            long seed = 100 + r;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    while (writing.get()) {
+                        read(itemManager, random);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }, "reader-" + r));
+        }
+
+        threads.forEach(Thread::start);
+        assertTrue(writersDone.await(2, TimeUnit.MINUTES), "寫入者沒有在時限內完成");
+        writing.set(false);
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.MINUTES.toMillis(1));
+        }
+        assertTrue(failures.isEmpty(), () -> "讀寫過程中發生錯誤: " + failures.peek());
+
+        Map<String, Item> all = new TreeMap<>();
+        expected.forEach(all::putAll);
+        assertMatches(all, itemManager);
+        itemManager.close();
+
+        // 重新載入後內容必須相同
+        ItemManager reloaded = new ItemManager(dataFile, new StorageOptions().columnar(columnar));
+        assertMatches(all, reloaded);
+        reloaded.close();
+    }
+
+    private static void write(ItemManager itemManager, String prefix, Map<String, Item> state, Random random) {
+        for (int i = 0; i < OPERATIONS_PER_WRITER; i++) {
+            String code = prefix + String.format("%04d", random.nextInt(CODES_PER_WRITER));
+            Item current = state.get(code);
+            int op = random.nextInt(10);
+            if (current == null) {
+                Item item = newItem(code, i);
+                assertTrue(itemManager.addItem(item), "新增失敗: " + code);
+                state.put(code, item);
+            } else if (op < 6) {
+                Item item = newItem(code, i);
+                assertTrue(itemManager.updateItem(code, item), "修改失敗: " + code);
+                state.put(code, item);
+            } else {
+                assertTrue(itemManager.deleteItem(code), "刪除失敗: " + code);
+                state.remove(code);
+            }
+        }
+    }
+
+    // 品名記錄編號與版本，價格等於版本，讀取端可以檢查看到的物品是否完整
+    private static Item newItem(String code, int version) {
+        return new Item("物品 " + code + " v" + version, code, version, "");
+    }
+
+    private static void read(ItemManager itemManager, Random random) {
+        String code = "W" + random.nextInt(WRITERS) + "-" + String.format("%04d", random.nextInt(CODES_PER_WRITER));
+        Optional<Item> found = itemManager.getItemByCode(code);
+        found.ifPresent(item -> {
+            assertEquals(code, item.getCode());
+            assertWhole(item);
+        });
+
+        String keyword = "w" + random.nextInt(WRITERS) + "-";
+        for (Item item : itemManager.searchItems(keyword)) {
+            assertTrue(item.getCode().toLowerCase(Locale.ROOT).contains(keyword)
+                    || item.getName().toLowerCase(Locale.ROOT).contains(keyword), "搜尋結果不符: " + item);
+            assertWhole(item);
+        }
+
+        List<Item> page = itemManager.getSortedItems(SortField.PRICE, true, random.nextInt(PAGE_SIZE), PAGE_SIZE);
+        assertDistinct(page);
+        for (int i = 1; i < page.size(); i++) {
+            assertTrue(page.get(i - 1).getPrice() <= page.get(i).getPrice(), "價格排序錯誤: " + page);
+        }
+
+        List<Item> byCode = itemManager.getSortedItems(SortField.CODE, random.nextBoolean());
+        assertDistinct(byCode);
+        assertDistinct(itemManager.getAllItems());
+    }
+
+    private static void assertWhole(Item item) {
+        assertEquals("物品 " + item.getCode() + " v" + (long) item.getPrice(), item.getName());
+    }
+
+    private static void assertDistinct(List<Item> items) {
+        Set<String> codes = new HashSet<>();
+        for (Item item : items) {
+            assertTrue(codes.add(item.getCode()), "重複的物品: " + item.getCode());
+        }
+    }
+
+    private static void assertMatches(Map<String, Item> expected, ItemManager itemManager) {
+        Map<String, String> actual = new TreeMap<>();
+        for (Item item : itemManager.getAllItems()) {
+            actual.put(item.getCode(), item.getName());
+        }
+        Map<String, String> names = new TreeMap<>();
+        expected.forEach((code, item) -> names.put(code, item.getName()));
+        assertEquals(names, actual);
+
+        List<String> sorted = new ArrayList<>();
+        itemManager.getSortedItems(SortField.CODE, true).forEach(item -> sorted.add(item.getCode()));
+        assertEquals(new ArrayList<>(names.keySet()), sorted);
+        for (int w = 0; w < WRITERS; w++) {
+            String prefix = "W" + w + "-";
+            long count = names.keySet().stream().filter(code -> code.startsWith(prefix)).count();
+            assertEquals(count, itemManager.searchItems(prefix).size());
+        }
+        for (Item item : itemManager.getAllItems()) {
+            assertEquals(Optional.of(item.getCode()), itemManager.getItemByCode(item.getCode()).map(Item::getCode));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.inventory.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.inventory.model.Item;
+import com.inventory.utils.JsonHandler;
+
+// 未啟用背景寫入時，批次匯入圖片回傳前結果就必須已經寫入資料檔
+class ItemManagerImageImportTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void synchronousImportIsOnDiskWhenCallReturns() throws IOException {
+        Path images = Files.createDirectories(directory.resolve("images").resolve("sub"));
+        ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png",
+                images.resolve("ITEM00001.png").toFile());
+        Path dataFile = directory.resolve("data.json");
+        ItemManager itemManager = new ItemManager(dataFile.toString(), new StorageOptions().journaled(false));
+        itemManager.addItem(new Item("滑鼠", "ITEM00001", 100));
+
+        ImageImportResult result = itemManager.importImages(directory.resolve("images"), 2, ProgressListener.NONE);
+
+        assertEquals(1, result.getAppliedCount());
+        String imagePath = itemManager.getItemByCode("ITEM00001").get().getImagePath();
+        assertFalse(imagePath.isEmpty());
+        // 不呼叫 close，模擬程式在匯入後異常結束
+        Item saved = new JsonHandler(true).loadItems(dataFile.toString()).get(0);
+        assertEquals(imagePath, saved.getImagePath());
+        ItemManager reopened = new ItemManager(dataFile.toString(), new StorageOptions().journaled(false));
+        assertEquals(imagePath, reopened.getItemByCode("ITEM00001").get().getImagePath());
+        reopened.close();
+        itemManager.close();
+    }
+
+    @Test
+    void findsImagesInEveryNestedDirectory() throws IOException {
+        Path images = directory.resolve("images");
+        Files.createDirectories(images);
+        Path deepest = images;
+        for (int i = 1; i <= 6; i++) {
+            deepest = Files.createDirectories(deepest.resolve("level" + i));
+            Path sibling = Files.createDirectories(deepest.resolveSibling("other" + i));
+            ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png",
+                    sibling.resolve(String.format("ITEM%05d.png", i)).toFile());
+            // 非圖片檔不計入
+            Files.write(sibling.resolve("readme.txt"), new byte[] {1});
+        }
+        ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png",
+                deepest.resolve("ITEM00007.png").toFile());
+        ItemManager itemManager = new ItemManager(directory.resolve("data.json").toString(),
+                new StorageOptions().journaled(false));
+        for (int i = 1; i <= 7; i++) {
+            itemManager.addItem(new Item("物品" + i, String.format("ITEM%05d", i), i));
+        }
+
+        ImageImportResult result = itemManager.importImages(images, 3, ProgressListener.NONE);
+
+        assertEquals(7, result.getScannedCount());
+        assertEquals(7, result.getAppliedCount());
+        for (int i = 1; i <= 7; i++) {
+            assertFalse(itemManager.getItemByCode(String.format("ITEM%05d", i)).get().getImagePath().isEmpty());
+        }
+        itemManager.close();
+    }
+
+    @Test
+    void missingDirectoryIsReportedAsFailure() {
+        ItemManager itemManager = new ItemManager(directory.resolve("data.json").toString(),
+                new StorageOptions().journaled(false));
+
+        ImageImportResult result = itemManager.importImages(directory.resolve("missing"), 2, ProgressListener.NONE);
+
+        assertEquals(0, result.getAppliedCount());
+        assertEquals(1, result.getFailures().size());
+        itemManager.close();
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventory.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.inventory.utils.JsonHandler;
+
+// 資料檔損毀時不可以只載入前半段，之後的寫入也不可以覆寫原檔
+class ItemManagerLoadTest {
+    private static final String TRUNCATED = "[{\"name\":\"滑鼠\",\"code\":\"ITEM00001\",\"price\":100.0},"
+            + "{\"name\":\"鍵盤\",\"code\":\"ITEM00002\",\"pri";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void truncatedDataFileFailsLoad() throws IOException {
+        Path dataFile = directory.resolve("data.json");
+        Files.write(dataFile, TRUNCATED.getBytes(StandardCharsets.UTF_8));
+        byte[] original = Files.readAllBytes(dataFile);
+
+        assertThrows(IOException.class, () -> new JsonHandler(true).loadItems(dataFile.toString()));
+        for (boolean journaled : new boolean[] {true, false}) {
+            assertThrows(UncheckedIOException.class,
+                    () -> new ItemManager(dataFile.toString(), new StorageOptions().journaled(journaled)));
+        }
+        assertArrayEquals(original, Files.readAllBytes(dataFile));
+    }
+
+    @Test
+    void missingShardFailsLoad() throws IOException {
+        Path shards = directory.resolve("data.shards");
+        Files.createDirectories(shards);
+        Files.write(shards.resolve("shards"), "2".getBytes(StandardCharsets.UTF_8));
+        Files.write(shards.resolve("shard-2-0.json"), "[]".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(UncheckedIOException.class, () -> new ItemManager(directory.resolve("data.json").toString(),
+                new StorageOptions().shards(2)));
+    }
+}
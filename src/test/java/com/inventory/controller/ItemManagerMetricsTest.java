@@ -0,0 +1,37 @@
+package com.inventory.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.inventory.metrics.Metrics;
+import com.inventory.metrics.Operation;
+import com.inventory.model.Item;
+
+// 編號重複或不存在而失敗的寫入要計入錯誤次數
+class ItemManagerMetricsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void failedWritesAreRecordedAsErrors() {
+        ItemManager itemManager = new ItemManager(directory.resolve("data.json").toString(), new StorageOptions());
+        Metrics metrics = itemManager.getMetrics();
+
+        assertTrue(itemManager.addItem(new Item("滑鼠", "ITEM00001", 100)));
+        assertFalse(itemManager.addItem(new Item("鍵盤", "ITEM00001", 200)));
+        assertFalse(itemManager.updateItem("ITEM00002", new Item("鍵盤", "ITEM00002", 200)));
+        assertFalse(itemManager.updateItem("ITEM00002", "鍵盤", 200));
+        assertFalse(itemManager.deleteItem("ITEM00002"));
+
+        assertEquals(1, metrics.stats(Operation.ADD).getErrors());
+        assertEquals(2, metrics.stats(Operation.UPDATE).getErrors());
+        assertEquals(1, metrics.stats(Operation.DELETE).getErrors());
+        itemManager.close();
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventory.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.inventory.model.Item;
+import com.inventory.utils.JsonHandler;
+
+// 無法寫成 JSON 的價格不可以進入儲存區，否則之後的每次寫入都會失敗
+class ItemManagerPriceTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void nonFinitePricesNeverReachTheStore() throws IOException {
+        Path dataFile = directory.resolve("data.json");
+        for (boolean journaled : new boolean[] {true, false}) {
+            ItemManager itemManager = new ItemManager(dataFile.toString(),
+                    new StorageOptions().journaled(journaled).asyncWrites(journaled));
+            String code = journaled ? "ITEM00001" : "ITEM00002";
+            assertTrue(itemManager.addItem(new Item("滑鼠", code, 100)));
+
+            assertFalse(itemManager.addItem("鍵盤", Double.NaN, ""));
+            assertFalse(itemManager.addItem(new Item("鍵盤", "ITEM00009", Double.POSITIVE_INFINITY)));
+            assertFalse(itemManager.updateItem(code, new Item("滑鼠", code, Double.NaN)));
+            assertFalse(itemManager.updateItem(code, "滑鼠", Double.NEGATIVE_INFINITY));
+            assertEquals(0, itemManager.addItems(Arrays.asList(new Item("螢幕", "ITEM00010", Double.NaN)))
+                    .getAppliedCount());
+            assertEquals(0, itemManager.updateItems(Collections.singletonMap(code, new Item("滑鼠", code, Double.NaN)))
+                    .getAppliedCount());
+
+            assertEquals(100, itemManager.getItemByCode(code).get().getPrice());
+            assertTrue(itemManager.checkpoint());
+            assertTrue(itemManager.flush());
+            itemManager.close();
+            assertTrue(new JsonHandler(true).loadItems(dataFile.toString()).stream()
+                    .anyMatch(item -> item.getCode().equals(code)));
+        }
+    }
+}
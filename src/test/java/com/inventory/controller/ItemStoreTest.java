@@ -0,0 +1,34 @@
+package com.inventory.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.inventory.model.Item;
+
+class ItemStoreTest {
+    // 遞增排序時「有圖片」排在「無圖片」之前 (與表格顯示的文字排序相同)
+    @Test
+    void ascendingImageSortPutsItemsWithImagesFirst() {
+        ItemStore store = new ItemStore();
+        store.add(new Item("滑鼠", "ITEM00001", 100));
+        store.add(new Item("鍵盤", "ITEM00002", 200, "a.png"));
+        store.add(new Item("螢幕", "ITEM00003", 300));
+        store.add(new Item("耳機", "ITEM00004", 400, "b.png"));
+
+        assertEquals(Arrays.asList("ITEM00002", "ITEM00004", "ITEM00001", "ITEM00003"),
+                codes(store.sorted(SortField.HAS_IMAGE, true)));
+        assertEquals(Arrays.asList("ITEM00003", "ITEM00001", "ITEM00004", "ITEM00002"),
+                codes(store.sorted(SortField.HAS_IMAGE, false)));
+    }
+
+    private static List<String> codes(List<Item> items) {
+        List<String> codes = new ArrayList<>();
+        items.forEach(item -> codes.add(item.getCode()));
+        return codes;
+    }
+}
@@ -0,0 +1,72 @@
+package com.inventory.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.inventory.model.Item;
+
+// 索引的搜尋結果必須與逐筆比對 contains 完全相同 (包含順序)
+class SearchIndexTest {
+    private static final String[] WORDS = {"無線", "滑鼠", "耳機", "藍牙", "鍵盤", "Nova", "X-", "機械", "線材", "鼠墊"};
+    private static final String[] QUERIES = {"滑", "滑鼠", "無線滑鼠", "線滑鼠", "線耳", "nova", "OVA x-", "item0",
+            "item0001", "0012", "機械鍵盤", "鼠鼠", "不存在", "a", "x-1"};
+
+    @Test
+    void matchesLinearScanThroughAddReplaceRemove() {
+        Random random = new Random(7);
+        SearchIndex index = new SearchIndex();
+        Map<String, Item> live = new LinkedHashMap<>();
+
+        for (int step = 0; step < 3000; step++) {
+            String code = String.format("ITEM%04d", random.nextInt(400));
+            Item current = live.get(code);
+            Item item = new Item(name(random), code, random.nextInt(1000));
+            if (current == null) {
+                index.add(item);
+                live.put(code, item);
+            } else if (random.nextInt(3) > 0) {
+                index.replace(current, item);
+                live.put(code, item);
+            } else {
+                index.remove(current);
+                live.remove(code);
+            }
+            if (step % 250 == 0) {
+                assertSameResults(index, live);
+            }
+        }
+        assertSameResults(index, live);
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0, words = 1 + random.nextInt(3); i < words; i++) {
+            name.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return name.append(random.nextInt(20)).toString();
+    }
+
+    private static void assertSameResults(SearchIndex index, Map<String, Item> live) {
+        for (String query : QUERIES) {
+            String lower = query.toLowerCase(Locale.ROOT);
+            List<String> expected = new ArrayList<>();
+            for (Item item : live.values()) {
+                if (item.getName().toLowerCase(Locale.ROOT).contains(lower)
+                        || item.getCode().toLowerCase(Locale.ROOT).contains(lower)) {
+                    expected.add(item.getCode());
+                }
+            }
+            List<String> actual = new ArrayList<>();
+            index.search(query).forEach(item -> actual.add(item.getCode()));
+            assertEquals(expected, actual, "查詢: " + query);
+        }
+    }
+}
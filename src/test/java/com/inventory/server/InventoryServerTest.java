@@ -0,0 +1,65 @@
+package com.inventory.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.inventory.controller.ItemManager;
+import com.inventory.controller.StorageOptions;
+import com.inventory.model.Item;
+
+class InventoryServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @TempDir
+    Path directory;
+
+    private ItemManager itemManager;
+    private InventoryServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        itemManager = new ItemManager(directory.resolve("data.json").toString(), new StorageOptions());
+        server = new InventoryServer(itemManager, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        itemManager.close();
+    }
+
+    // Gson 會接受 NaN 與 Infinity，這類價格放進儲存區後每次寫入快照都會失敗
+    @Test
+    void nonFinitePricesAreRejected() throws Exception {
+        assertTrue(itemManager.addItem(new Item("滑鼠", "ITEM00001", 100)));
+
+        assertEquals(400, send("POST", "/items", "{\"name\":\"鍵盤\",\"code\":\"ITEM00002\",\"price\":NaN}"));
+        assertEquals(400, send("PUT", "/items/ITEM00001", "{\"name\":\"滑鼠\",\"price\":Infinity}"));
+        assertEquals(201, send("POST", "/items", "{\"name\":\"鍵盤\",\"code\":\"ITEM00002\",\"price\":200}"));
+
+        assertEquals(2, itemManager.getAllItems().size());
+        assertEquals(100, itemManager.getItemByCode("ITEM00001").get().getPrice());
+        assertTrue(itemManager.checkpoint());
+        assertTrue(itemManager.flush());
+    }
+
+    private int send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + server.getAddress() + path))
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,88 @@
+package com.inventory.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.Test;
+
+class BackgroundTasksTest {
+
+    // 連續送出的寫入作業都要依序執行完成，不會被較新的寫入或 cancelAll 取消
+    @Test
+    void writesRunInOrderAndAreNeverCancelled() throws Exception {
+        List<String> computed = new CopyOnWriteArrayList<>();
+        List<String> succeeded = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        BackgroundTasks[] tasks = new BackgroundTasks[1];
+
+        SwingUtilities.invokeAndWait(() -> {
+            tasks[0] = new BackgroundTasks(new JLabel(), () -> { });
+            for (String name : new String[] {"新增1", "新增2", "修改"}) {
+                tasks[0].submitWrite(new BackgroundTasks.Task<String>("save", name) {
+                    @Override
+                    protected String compute() throws InterruptedException {
+                        Thread.sleep(50);
+                        computed.add(name);
+                        return name;
+                    }
+
+                    @Override
+                    protected void succeeded(String result) {
+                        succeeded.add(result);
+                        done.countDown();
+                    }
+
+                    @Override
+                    protected void cancelled() {
+                        done.countDown();
+                    }
+                });
+            }
+            tasks[0].cancelAll();
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of("新增1", "新增2", "修改"), computed);
+        assertEquals(List.of("新增1", "新增2", "修改"), succeeded);
+        assertTrue(tasks[0].awaitWrites(1, TimeUnit.SECONDS));
+    }
+
+    // 唯讀作業仍然只保留最新的一個
+    @Test
+    void readTasksKeepOnlyTheLatest() throws Exception {
+        List<String> succeeded = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        SwingUtilities.invokeAndWait(() -> {
+            BackgroundTasks tasks = new BackgroundTasks(new JLabel(), () -> { });
+            for (String name : new String[] {"舊搜尋", "新搜尋"}) {
+                tasks.submit(new BackgroundTasks.Task<String>("table", name) {
+                    @Override
+                    protected String compute() throws InterruptedException {
+                        Thread.sleep(50);
+                        return name;
+                    }
+
+                    @Override
+                    protected void succeeded(String result) {
+                        succeeded.add(result);
+                        done.countDown();
+                    }
+                });
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(List.of("新搜尋"), succeeded);
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventory.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+
+import javax.swing.ImageIcon;
+
+import org.junit.jupiter.api.Test;
+
+import com.inventory.metrics.Metrics;
+
+class ThumbnailCacheTest {
+    // 10x10 的縮圖佔 400 bytes
+    private static ImageIcon icon() {
+        return new ImageIcon(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+    }
+
+    @Test
+    void hitsAndMissesAreReportedThroughMetrics() {
+        ThumbnailCache cache = new ThumbnailCache(1000);
+        Metrics metrics = new Metrics();
+        metrics.setThumbnailGauges(cache::getHits, cache::getMisses);
+
+        assertNull(cache.get("a.png"));
+        cache.put("a.png", icon());
+        cache.get("a.png");
+        cache.get("a.png");
+
+        assertEquals(2, metrics.getThumbnailHits());
+        assertEquals(1, metrics.getThumbnailMisses());
+        assertTrue(metrics.dump().contains("thumbnailHits=2 thumbnailMisses=1"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverLimit() {
+        ThumbnailCache cache = new ThumbnailCache(1000);
+        cache.put("a.png", icon());
+        cache.put("b.png", icon());
+        cache.get("a.png");
+        cache.put("c.png", icon());
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b.png"));
+        assertEquals(800, cache.getBytes());
+    }
+}
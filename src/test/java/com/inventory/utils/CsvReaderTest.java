@@ -0,0 +1,48 @@
+package com.inventory.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+    @Test
+    void readsQuotedFieldsSpanningLines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("滑鼠,\"無線,\n藍牙\",\"說\"\"明\"\r\n鍵盤,ITEM00002,200\n"));
+
+        assertEquals(Arrays.asList("滑鼠", "無線,\n藍牙", "說\"明"), csv.readRecord());
+        assertEquals(1, csv.getLineNumber());
+        assertEquals(Arrays.asList("鍵盤", "ITEM00002", "200"), csv.readRecord());
+        assertEquals(3, csv.getLineNumber());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void unclosedQuoteAtEndOfFileReportsStartingLine() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("滑鼠,ITEM00001,100\n\"鍵盤,ITEM00002,200\n螢幕,ITEM00003,300\n"));
+        csv.readRecord();
+
+        IOException error = assertThrows(IOException.class, csv::readRecord);
+        assertTrue(error.getMessage().contains("第 2 行"), error.getMessage());
+    }
+
+    // 引號沒有結束時不會把剩下的檔案全部讀進同一個欄位
+    @Test
+    void unclosedQuoteStopsAtRecordLimit() throws IOException {
+        StringBuilder text = new StringBuilder("\"滑鼠,ITEM00001,100\n");
+        for (int i = 2; i <= 1000; i++) {
+            text.append("物品").append(i).append(",ITEM").append(i).append(",100\n");
+        }
+        CsvReader csv = new CsvReader(new StringReader(text.toString()), 1024);
+
+        IOException error = assertThrows(IOException.class, csv::readRecord);
+        assertTrue(error.getMessage().contains("第 1 行"), error.getMessage());
+        assertTrue(csv.getRawRecord().length() <= 1025);
+    }
+}
@@ -0,0 +1,76 @@
+package com.inventory.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.Gson;
+import com.inventory.model.Item;
+
+class JournalHandlerTest {
+    private final Gson gson = new JsonHandler(true).getCompactGson();
+
+    @TempDir
+    Path directory;
+
+    // 模擬寫到一半當機：最後一行不完整，重新啟動後的新紀錄必須在下一次啟動時仍能重播
+    @Test
+    void recordsWrittenAfterTornTailSurviveNextRestart() throws IOException {
+        String fileName = directory.resolve("data.journal").toString();
+
+        JournalHandler first = new JournalHandler(fileName, gson);
+        first.replay(new Recorder());
+        first.appendPuts(Arrays.asList(new Item("滑鼠", "ITEM00001", 100), new Item("鍵盤", "ITEM00002", 200)));
+        first.close();
+        Files.write(Path.of(fileName + ".1"), "{\"op\":\"put\",\"item\":{\"name\":\"耳".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        JournalHandler second = new JournalHandler(fileName, gson);
+        Recorder afterCrash = new Recorder();
+        assertEquals(2, second.replay(afterCrash));
+        second.appendPut(new Item("螢幕", "ITEM00003", 300));
+        second.appendDelete("ITEM00001");
+        second.close();
+
+        Recorder afterRestart = new Recorder();
+        assertEquals(4, new JournalHandler(fileName, gson).replay(afterRestart));
+        assertEquals(Arrays.asList("put ITEM00001", "put ITEM00002", "put ITEM00003", "delete ITEM00001"),
+                afterRestart.events);
+    }
+
+    @Test
+    void replayWithoutCrashKeepsAllRecords() {
+        String fileName = directory.resolve("data.journal").toString();
+        for (int restart = 0; restart < 3; restart++) {
+            JournalHandler journal = new JournalHandler(fileName, gson);
+            assertEquals(restart, journal.replay(new Recorder()));
+            journal.appendPut(new Item("物品" + restart, "ITEM0000" + restart, restart));
+            journal.close();
+        }
+        assertEquals(3, new JournalHandler(fileName, gson).replay(new Recorder()));
+    }
+
+    private static class Recorder implements JournalHandler.ReplayListener {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onPut(Item item) {
+            events.add("put " + item.getCode());
+        }
+
+        @Override
+        public void onDelete(String code) {
+            events.add("delete " + code);
+        }
+    }
+}